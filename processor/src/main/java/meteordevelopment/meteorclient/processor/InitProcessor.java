@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes every {@code @PreInit} and {@code @PostInit} method of the compiled sources to {@value #MANIFEST}, already sorted
+ * so that the tasks of a class run after the tasks of its dependencies. {@code ReflectInit} reads the manifest instead of
+ * scanning the classpath at startup.
+ * <p>
+ * Every line holds the annotation, the binary name of the class and the method name separated by spaces.
+ */
+@SupportedAnnotationTypes({ InitProcessor.PRE_INIT, InitProcessor.POST_INIT })
+public class InitProcessor extends AbstractProcessor {
+    public static final String MANIFEST = "META-INF/meteor-init.txt";
+
+    static final String PRE_INIT = "meteordevelopment.meteorclient.utils.PreInit";
+    static final String POST_INIT = "meteordevelopment.meteorclient.utils.PostInit";
+
+    private final Map<String, List<Task>> tasks = new LinkedHashMap<>();
+    private final Set<Element> origins = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getQualifiedName().toString();
+
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof ExecutableElement method)) continue;
+
+                if (!method.getModifiers().contains(Modifier.STATIC) || !method.getModifiers().contains(Modifier.PUBLIC) || !method.getParameters().isEmpty()) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Init tasks need to be public static methods without parameters.", method);
+                    continue;
+                }
+
+                TypeElement owner = (TypeElement) method.getEnclosingElement();
+
+                tasks.computeIfAbsent(name, s -> new ArrayList<>()).add(new Task(
+                    binaryName(owner),
+                    method.getSimpleName().toString(),
+                    getDependencies(method, annotation)
+                ));
+
+                origins.add(owner);
+            }
+        }
+
+        if (roundEnv.processingOver() && !tasks.isEmpty()) write();
+        return false;
+    }
+
+    private List<String> getDependencies(ExecutableElement method, TypeElement annotation) {
+        List<String> dependencies = new ArrayList<>();
+
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!processingEnv.getTypeUtils().isSameType(mirror.getAnnotationType(), annotation.asType())) continue;
+
+            mirror.getElementValues().forEach((key, value) -> {
+                if (!key.getSimpleName().contentEquals("dependencies")) return;
+
+                for (Object dependency : (List<?>) value.getValue()) {
+                    TypeMirror type = (TypeMirror) ((AnnotationValue) dependency).getValue();
+                    if (type instanceof DeclaredType declared) dependencies.add(binaryName((TypeElement) declared.asElement()));
+                }
+            });
+        }
+
+        return dependencies;
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void write() {
+        StringBuilder sb = new StringBuilder("# Generated by ").append(InitProcessor.class.getName()).append(", do not edit\n");
+
+        tasks.forEach((annotation, list) -> {
+            for (Task task : sort(list)) {
+                sb.append(annotation).append(' ').append(task.owner).append(' ').append(task.method).append('\n');
+            }
+        });
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST, origins.toArray(new Element[0]));
+
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + MANIFEST + ": " + e.getMessage());
+        }
+    }
+
+    /** Orders tasks so every task comes after the tasks of the classes it depends on, ties are broken by name to keep the output stable. */
+    private List<Task> sort(List<Task> list) {
+        List<Task> left = new ArrayList<>(list);
+        left.sort(Comparator.comparing((Task task) -> task.owner).thenComparing(task -> task.method));
+
+        Map<String, List<Task>> byClass = new HashMap<>();
+        for (Task task : left) byClass.computeIfAbsent(task.owner, s -> new ArrayList<>()).add(task);
+
+        List<Task> sorted = new ArrayList<>(left.size());
+        Set<Task> visited = new HashSet<>();
+        Set<Task> visiting = new HashSet<>();
+
+        for (Task task : left) visit(task, byClass, visited, visiting, sorted);
+
+        return sorted;
+    }
+
+    private void visit(Task task, Map<String, List<Task>> byClass, Set<Task> visited, Set<Task> visiting, List<Task> sorted) {
+        if (visited.contains(task)) return;
+
+        if (!visiting.add(task)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Init dependency cycle involving " + task.owner + "." + task.method);
+            return;
+        }
+
+        for (String dependency : task.dependencies) {
+            for (Task other : byClass.getOrDefault(dependency, List.of())) {
+                if (other != task) visit(other, byClass, visited, visiting, sorted);
+            }
+        }
+
+        visiting.remove(task);
+        visited.add(task);
+        sorted.add(task);
+    }
+
+    private record Task(String owner, String method, List<String> dependencies) {}
+}
@@ -0,0 +1,29 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+/**
+ * Benchmarks run without a game, window or Fabric Loader. Registries are bootstrapped like the data generator does,
+ * anything touching {@link MeteorClient} or {@code mc} can't be loaded, so benchmarks call the code below it directly.
+ */
+public class BenchmarkUtils {
+    private static boolean bootstrapped;
+
+    private BenchmarkUtils() {
+    }
+
+    public static synchronized void bootstrap() {
+        if (bootstrapped) return;
+
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        bootstrapped = true;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import meteordevelopment.meteorclient.utils.Utils;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building vertices and indices of boxes the same way {@link Renderer3D#boxSides} and {@link Renderer3D#boxLines} do,
+ * without uploading them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshBenchmark {
+    // Mesh.end() uploads through OpenGL, which isn't available here, so the benchmark stops building by itself
+    private static final VarHandle BUILDING;
+
+    static {
+        try {
+            BUILDING = MethodHandles.privateLookupIn(Mesh.class, MethodHandles.lookup()).findVarHandle(Mesh.class, "building", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({ "100", "10000" })
+    public int boxes;
+
+    private Mesh triangles, lines;
+    private double[] positions;
+
+    private final Color sideColor = new Color(255, 0, 0, 50);
+    private final Color lineColor = new Color(255, 0, 0, 255);
+
+    @Setup
+    public void setup() {
+        // Keeps Mesh.begin() from reading the camera
+        Utils.rendering3D = false;
+
+        triangles = new Mesh(DrawMode.Triangles, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+        lines = new Mesh(DrawMode.Lines, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+
+        Random random = new Random(0);
+        positions = new double[boxes * 3];
+        for (int i = 0; i < positions.length; i++) positions[i] = random.nextInt(256) - 128;
+    }
+
+    @Benchmark
+    public boolean sides() {
+        triangles.begin();
+
+        for (int i = 0; i < boxes; i++) {
+            double x = positions[i * 3], y = positions[i * 3 + 1], z = positions[i * 3 + 2];
+            boxSides(x, y, z, x + 1, y + 1, z + 1);
+        }
+
+        boolean building = triangles.isBuilding();
+        BUILDING.set(triangles, false);
+        return building;
+    }
+
+    @Benchmark
+    public boolean lines() {
+        lines.begin();
+
+        for (int i = 0; i < boxes; i++) {
+            double x = positions[i * 3], y = positions[i * 3 + 1], z = positions[i * 3 + 2];
+            boxLines(x, y, z, x + 1, y + 1, z + 1);
+        }
+
+        boolean building = lines.isBuilding();
+        BUILDING.set(lines, false);
+        return building;
+    }
+
+    @SuppressWarnings("Duplicates")
+    private void boxSides(double x1, double y1, double z1, double x2, double y2, double z2) {
+        int blb = triangles.vec3(x1, y1, z1).color(sideColor).next();
+        int blf = triangles.vec3(x1, y1, z2).color(sideColor).next();
+        int brb = triangles.vec3(x2, y1, z1).color(sideColor).next();
+        int brf = triangles.vec3(x2, y1, z2).color(sideColor).next();
+        int tlb = triangles.vec3(x1, y2, z1).color(sideColor).next();
+        int tlf = triangles.vec3(x1, y2, z2).color(sideColor).next();
+        int trb = triangles.vec3(x2, y2, z1).color(sideColor).next();
+        int trf = triangles.vec3(x2, y2, z2).color(sideColor).next();
+
+        triangles.quad(blb, blf, tlf, tlb);
+        triangles.quad(brb, trb, trf, brf);
+        triangles.quad(blb, tlb, trb, brb);
+        triangles.quad(blf, brf, trf, tlf);
+        triangles.quad(blb, brb, brf, blf);
+        triangles.quad(tlb, tlf, trf, trb);
+
+        triangles.growIfNeeded();
+    }
+
+    @SuppressWarnings("Duplicates")
+    private void boxLines(double x1, double y1, double z1, double x2, double y2, double z2) {
+        int blb = lines.vec3(x1, y1, z1).color(lineColor).next();
+        int blf = lines.vec3(x1, y1, z2).color(lineColor).next();
+        int brb = lines.vec3(x2, y1, z1).color(lineColor).next();
+        int brf = lines.vec3(x2, y1, z2).color(lineColor).next();
+        int tlb = lines.vec3(x1, y2, z1).color(lineColor).next();
+        int tlf = lines.vec3(x1, y2, z2).color(lineColor).next();
+        int trb = lines.vec3(x2, y2, z1).color(lineColor).next();
+        int trf = lines.vec3(x2, y2, z2).color(lineColor).next();
+
+        lines.line(blb, blf);
+        lines.line(blb, brb);
+        lines.line(blb, tlb);
+        lines.line(blf, brf);
+        lines.line(blf, tlf);
+        lines.line(brb, brf);
+        lines.line(brb, trb);
+        lines.line(brf, trf);
+        lines.line(tlb, tlf);
+        lines.line(tlb, trb);
+        lines.line(tlf, trf);
+        lines.line(trb, trf);
+
+        lines.growIfNeeded();
+    }
+}
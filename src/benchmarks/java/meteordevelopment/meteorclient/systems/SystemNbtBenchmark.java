@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems;
+
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.SyntheticModules;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps of saving and loading a large modules config like {@link System#save()} and {@link System#load()} do:
+ * serializing, the change check, writing, reading and deserializing. {@code Modules} itself needs the game, so its tag
+ * is built from synthetic modules the same way {@code Modules.toTag()} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SystemNbtBenchmark {
+    @Param({ "250", "1000" })
+    public int modules;
+
+    private List<Module> list;
+    private NbtCompound tag, savedTag;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        list = SyntheticModules.create(modules);
+
+        tag = toTag();
+        savedTag = toTag();
+
+        file = Files.createTempFile("meteor-benchmark", ".nbt");
+        NbtIo.write(tag, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public NbtCompound serialize() {
+        return toTag();
+    }
+
+    @Benchmark
+    public boolean unchanged() {
+        return toTag().equals(savedTag);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        NbtIo.write(tag, file);
+        return file;
+    }
+
+    @Benchmark
+    public NbtCompound read() throws IOException {
+        return NbtIo.read(file);
+    }
+
+    @Benchmark
+    public int deserialize() {
+        NbtList modulesTag = tag.getList("modules", NbtElement.COMPOUND_TYPE);
+
+        for (int i = 0; i < modulesTag.size(); i++) {
+            list.get(i).fromTag(modulesTag.getCompound(i));
+        }
+
+        return modulesTag.size();
+    }
+
+    private NbtCompound toTag() {
+        NbtCompound tag = new NbtCompound();
+
+        NbtList modulesTag = new NbtList();
+        for (Module module : list) {
+            NbtCompound moduleTag = module.toTag();
+            if (moduleTag != null) modulesTag.add(moduleTag);
+        }
+        tag.put("modules", modulesTag);
+
+        return tag;
+    }
+}
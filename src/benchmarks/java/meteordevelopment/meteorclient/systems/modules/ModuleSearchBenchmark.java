@@ -0,0 +1,60 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typing a query into the modules screen search box, one character at a time, like {@code Modules.searchTitles} and
+ * {@code Modules.searchSettingTitles} are called on every change.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleSearchBenchmark {
+    private static final String QUERY = "crystal aura";
+
+    @Param({ "250", "1000" })
+    public int modules;
+
+    private List<Module> list;
+    private ModuleSearchIndex titles, settings;
+
+    @Setup
+    public void setup() {
+        list = SyntheticModules.create(modules);
+
+        titles = ModuleSearchIndex.titles(list);
+        settings = ModuleSearchIndex.settings(list);
+    }
+
+    @Benchmark
+    public ModuleSearchIndex index() {
+        return ModuleSearchIndex.titles(list);
+    }
+
+    @Benchmark
+    public int typeTitles() {
+        return type(titles, true);
+    }
+
+    @Benchmark
+    public int typeSettings() {
+        return type(settings, false);
+    }
+
+    private static int type(ModuleSearchIndex index, boolean useAliases) {
+        int found = 0;
+        for (int i = 1; i <= QUERY.length(); i++) found += index.search(QUERY.substring(0, i), Integer.MAX_VALUE, useAliases).size();
+        return found;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import meteordevelopment.meteorclient.BenchmarkUtils;
+import meteordevelopment.meteorclient.renderer.ShapeMode;
+import meteordevelopment.meteorclient.settings.*;
+import net.minecraft.block.Blocks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Modules with names and settings shaped like the real ones, which can't be created without the game. Always the same
+ * for the same count.
+ */
+public class SyntheticModules {
+    private static final String[] PREFIXES = {
+        "auto", "anti", "fast", "no", "better", "packet", "air", "block", "chest", "crystal", "entity", "hole", "item",
+        "kill", "light", "nether", "player", "storage", "tunnel", "void", "free", "elytra", "bed", "anchor", "self"
+    };
+
+    private static final String[] SUFFIXES = {
+        "aura", "esp", "fill", "mine", "place", "trap", "walk", "fly", "sprint", "totem", "tweaks", "chams", "tracers",
+        "notifier", "breaker", "logger", "replenish", "swap", "eat", "cam"
+    };
+
+    private static final String[] SETTINGS = {
+        "range", "delay", "rotate", "swing", "place-delay", "break-delay", "min-damage", "max-self-damage", "pause-on-eat",
+        "render", "shape-mode", "blocks", "only-own", "anti-suicide", "target-range", "speed", "mode", "notify"
+    };
+
+    private SyntheticModules() {
+    }
+
+    public static List<Module> create(int count) {
+        BenchmarkUtils.bootstrap();
+
+        List<String> names = new ArrayList<>();
+        for (String prefix : PREFIXES) {
+            for (String suffix : SUFFIXES) names.add(prefix + "-" + suffix);
+        }
+
+        Random random = new Random(0);
+        Collections.shuffle(names, random);
+
+        Category[] categories = { new Category("Combat"), new Category("Player"), new Category("Movement"), new Category("Render"), new Category("World"), new Category("Misc") };
+        List<Module> modules = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String name = names.get(i % names.size()) + (i >= names.size() ? "-" + i / names.size() : "");
+            Module module = new Module(categories[random.nextInt(categories.length)], name, "Synthetic " + name + " module used by benchmarks.") {};
+
+            addSettings(module, random);
+            modules.add(module);
+        }
+
+        return modules;
+    }
+
+    private static void addSettings(Module module, Random random) {
+        SettingGroup sgGeneral = module.settings.getDefaultGroup();
+        SettingGroup sgRender = module.settings.createGroup("Render");
+
+        for (int i = 0; i < 12; i++) {
+            SettingGroup group = i < 8 ? sgGeneral : sgRender;
+            String name = SETTINGS[(i + random.nextInt(SETTINGS.length)) % SETTINGS.length] + "-" + i;
+            String description = "The " + name.replace('-', ' ') + " of the module.";
+
+            Setting<?> setting = switch (i % 5) {
+                case 0 -> group.add(new BoolSetting.Builder().name(name).description(description).defaultValue(false).build());
+                case 1 -> group.add(new IntSetting.Builder().name(name).description(description).defaultValue(4).build());
+                case 2 -> group.add(new DoubleSetting.Builder().name(name).description(description).defaultValue(4.5).build());
+                case 3 -> group.add(new EnumSetting.Builder<ShapeMode>().name(name).description(description).defaultValue(ShapeMode.Both).build());
+                default -> group.add(new BlockListSetting.Builder().name(name).description(description).defaultValue(Blocks.OBSIDIAN, Blocks.CRYING_OBSIDIAN).build());
+            };
+
+            // Only changed settings are saved
+            if (random.nextBoolean()) change(setting, random);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void change(Setting<?> setting, Random random) {
+        switch (setting) {
+            case BoolSetting s -> s.set(true);
+            case IntSetting s -> s.set(random.nextInt(10));
+            case DoubleSetting s -> s.set(random.nextDouble() * 10);
+            case EnumSetting<?> s -> ((EnumSetting<ShapeMode>) s).set(ShapeMode.Lines);
+            case BlockListSetting s -> s.set(new ArrayList<>(List.of(Blocks.CHEST, Blocks.ENDER_CHEST, Blocks.BARREL, Blocks.SHULKER_BOX, Blocks.FURNACE)));
+            default -> {}
+        }
+    }
+}
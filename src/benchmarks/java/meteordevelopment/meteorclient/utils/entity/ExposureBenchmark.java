@@ -0,0 +1,93 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import meteordevelopment.meteorclient.BenchmarkUtils;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The exposure raycasts behind {@link DamageUtils#explosionDamage}, which is most of its cost, against a synthetic block
+ * view of randomly placed full blocks. Damage reductions need a world and are left out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExposureBenchmark {
+    private static final int SIZE = 32;
+
+    /** Chance for every block of the view to be solid, in percent. */
+    @Param({ "10", "40" })
+    public int density;
+
+    private boolean[] solid;
+    private VoxelShape fullCube;
+    private DamageUtils.RaycastFactory raycastFactory;
+
+    private Box target;
+    private Vec3d[] explosions;
+
+    @Setup
+    public void setup() {
+        BenchmarkUtils.bootstrap();
+
+        Random random = new Random(0);
+
+        solid = new boolean[SIZE * SIZE * SIZE];
+        for (int i = 0; i < solid.length; i++) solid[i] = random.nextInt(100) < density;
+
+        // Keep the target standing in the open on a floor
+        int center = SIZE / 2;
+        for (int x = center - 1; x <= center + 1; x++) {
+            for (int z = center - 1; z <= center + 1; z++) {
+                for (int y = center; y <= center + 2; y++) solid[index(x, y, z)] = false;
+                solid[index(x, center - 1, z)] = true;
+            }
+        }
+
+        fullCube = VoxelShapes.fullCube();
+        raycastFactory = (context, blockPos) -> {
+            if (!isSolid(blockPos)) return null;
+            return fullCube.raycast(context.start(), context.end(), blockPos);
+        };
+
+        target = new Box(center + 0.2, center, center + 0.2, center + 0.8, center + 1.8, center + 0.8);
+
+        // Crystal positions around the target, like CrystalAura checks every tick
+        explosions = new Vec3d[64];
+        for (int i = 0; i < explosions.length; i++) {
+            explosions[i] = new Vec3d(center + random.nextInt(13) - 6 + 0.5, center + random.nextInt(5) - 1, center + random.nextInt(13) - 6 + 0.5);
+        }
+    }
+
+    @Benchmark
+    public float exposure() {
+        float total = 0;
+        for (Vec3d explosion : explosions) total += DamageUtils.calculateExposure(explosion, target, raycastFactory);
+        return total;
+    }
+
+    private boolean isSolid(BlockPos pos) {
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= SIZE || z >= SIZE) return false;
+
+        return solid[index(x, y, z)];
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y * SIZE + z) * SIZE + x;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.misc;
+
+import meteordevelopment.starscript.Script;
+import meteordevelopment.starscript.StandardLib;
+import meteordevelopment.starscript.Starscript;
+import meteordevelopment.starscript.value.Value;
+import meteordevelopment.starscript.value.ValueMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiling and running the scripts of the text HUD presets with {@link MeteorStarscript}. The globals they read are
+ * replaced by constants of the same shape, the real ones need a world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StarscriptBenchmark {
+    private static final String[] SOURCES = {
+        "FPS: #1{fps}",
+        "TPS: #1{round(server.tps, 1)}",
+        "Ping: #1{ping}",
+        "Speed: #1{round(player.speed, 1)}",
+        "Pos: #1{floor(camera.pos.x)}, {floor(camera.pos.y)}, {floor(camera.pos.z)}",
+        "{player.opposite_dimension != \"End\" ? player.opposite_dimension + \":\" : \"\"} #1{player.opposite_dimension != \"End\" ? \"\" + floor(camera.opposite_dim_pos.x) + \", \" + floor(camera.opposite_dim_pos.y) + \", \" + floor(camera.opposite_dim_pos.z) : \"\"}",
+        "Breaking progress: #1{round(player.breaking_progress * 100)}%",
+        "{camera.direction} #1({round(camera.yaw, 1)}, {round(camera.pitch, 1)})",
+        "{meteor.name} #1{meteor.version}"
+    };
+
+    private Script[] scripts;
+    private final StringBuilder sb = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        Starscript ss = new Starscript();
+        StandardLib.init(ss);
+
+        ss.set("fps", () -> Value.number(144));
+        ss.set("ping", () -> Value.number(42));
+        ss.set("server", new ValueMap()
+            .set("tps", () -> Value.number(19.97))
+        );
+        ss.set("player", new ValueMap()
+            .set("speed", () -> Value.number(5.612))
+            .set("breaking_progress", () -> Value.number(0.35))
+            .set("opposite_dimension", () -> Value.string("Nether"))
+        );
+        ss.set("camera", new ValueMap()
+            .set("pos", new ValueMap()
+                .set("x", () -> Value.number(1234.56))
+                .set("y", () -> Value.number(64))
+                .set("z", () -> Value.number(-789.01))
+            )
+            .set("opposite_dim_pos", new ValueMap()
+                .set("x", () -> Value.number(154.32))
+                .set("y", () -> Value.number(64))
+                .set("z", () -> Value.number(-98.63))
+            )
+            .set("yaw", () -> Value.number(-123.456))
+            .set("pitch", () -> Value.number(12.34))
+            .set("direction", () -> Value.string("North"))
+        );
+        ss.set("meteor", new ValueMap()
+            .set("name", "Meteor Client")
+            .set("version", "0.6.0")
+        );
+
+        MeteorStarscript.ss = ss;
+
+        scripts = compile();
+    }
+
+    @Benchmark
+    public Script[] compile() {
+        Script[] scripts = new Script[SOURCES.length];
+        for (int i = 0; i < SOURCES.length; i++) scripts[i] = MeteorStarscript.compile(SOURCES[i]);
+        return scripts;
+    }
+
+    @Benchmark
+    public int run() {
+        int length = 0;
+
+        for (Script script : scripts) {
+            sb.setLength(0);
+            length += MeteorStarscript.run(script, sb).length();
+        }
+
+        return length;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import meteordevelopment.meteorclient.BenchmarkUtils;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Searching a generated chunk of 24 sections the way {@code ESPChunk.searchChunk} does for BlockESP, compared to reading
+ * every block state. The predicate is a set lookup like {@code BlockListSetting.contains}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaletteSearchBenchmark {
+    private static final int SECTIONS = 24;
+
+    private List<PalettedContainer<BlockState>> sections;
+    private Predicate<BlockState> predicate;
+
+    @Setup
+    public void setup() {
+        BenchmarkUtils.bootstrap();
+
+        Random random = new Random(0);
+        BlockState[] stone = { Blocks.STONE.getDefaultState(), Blocks.ANDESITE.getDefaultState(), Blocks.GRAVEL.getDefaultState(), Blocks.COAL_ORE.getDefaultState(), Blocks.IRON_ORE.getDefaultState() };
+        BlockState[] deep = { Blocks.DEEPSLATE.getDefaultState(), Blocks.TUFF.getDefaultState(), Blocks.DEEPSLATE_IRON_ORE.getDefaultState(), Blocks.DEEPSLATE_DIAMOND_ORE.getDefaultState(), Blocks.LAVA.getDefaultState() };
+
+        sections = new ArrayList<>(SECTIONS);
+
+        for (int i = 0; i < SECTIONS; i++) {
+            PalettedContainer<BlockState> container = new PalettedContainer<>(Block.STATE_IDS, Blocks.AIR.getDefaultState(), PalettedContainer.PaletteProvider.BLOCK_STATE);
+
+            // Deepslate at the bottom, stone in the middle and mostly air above the surface
+            if (i < 16) {
+                BlockState[] palette = i < 8 ? deep : stone;
+
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            BlockState state = random.nextInt(10) < 8 ? palette[0] : palette[random.nextInt(palette.length)];
+                            if (random.nextInt(60) == 0) state = Blocks.CAVE_AIR.getDefaultState();
+
+                            container.swap(x, y, z, state);
+                        }
+                    }
+                }
+
+                // A few of the blocks players usually search for
+                for (int j = 0; j < 3; j++) container.swap(random.nextInt(16), random.nextInt(16), random.nextInt(16), Blocks.CHEST.getDefaultState());
+                if (i % 4 == 0) container.swap(random.nextInt(16), random.nextInt(16), random.nextInt(16), Blocks.SPAWNER.getDefaultState());
+            }
+            else if (i == 16) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) container.swap(x, 0, z, Blocks.GRASS_BLOCK.getDefaultState());
+                }
+            }
+
+            sections.add(container);
+        }
+
+        Set<Block> blocks = new ReferenceOpenHashSet<>(List.of(Blocks.CHEST, Blocks.SPAWNER, Blocks.DEEPSLATE_DIAMOND_ORE));
+        predicate = state -> blocks.contains(state.getBlock());
+    }
+
+    @Benchmark
+    public int paletteSearch() {
+        int[] found = { 0 };
+
+        for (int i = 0; i < sections.size(); i++) {
+            PaletteSearch.search(sections.get(i), 0, (i - 4) << 4, 0, predicate, (x, y, z, state) -> found[0]++);
+        }
+
+        return found[0];
+    }
+
+    @Benchmark
+    public int everyBlock() {
+        int found = 0;
+
+        for (PalettedContainer<BlockState> section : sections) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (predicate.test(section.get(x, y, z))) found++;
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.commands.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.commands.Command;
+import meteordevelopment.meteorclient.systems.modules.ModuleProfiler;
+import net.minecraft.command.CommandSource;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ProfileCommand extends Command {
+    public ProfileCommand() {
+        super("profile", "Measures how long the event handlers of active modules take.");
+    }
+
+    @Override
+    public void build(LiteralArgumentBuilder<CommandSource> builder) {
+        builder.then(literal("start").executes(context -> {
+            ModuleProfiler.start();
+            info("Started profiling modules.");
+
+            return SINGLE_SUCCESS;
+        }));
+
+        builder.then(literal("stop").executes(context -> {
+            ModuleProfiler.stop();
+            info("Stopped profiling modules after (highlight)%.1f(default) seconds.", ModuleProfiler.getSeconds());
+
+            return SINGLE_SUCCESS;
+        }));
+
+        builder.then(literal("reset").executes(context -> {
+            ModuleProfiler.reset();
+            info("Reset the profiler.");
+
+            return SINGLE_SUCCESS;
+        }));
+
+        builder.then(literal("dump")
+            .executes(context -> {
+                dump(ModuleProfiler.Format.Json);
+                return SINGLE_SUCCESS;
+            })
+            .then(literal("json").executes(context -> {
+                dump(ModuleProfiler.Format.Json);
+                return SINGLE_SUCCESS;
+            }))
+            .then(literal("csv").executes(context -> {
+                dump(ModuleProfiler.Format.Csv);
+                return SINGLE_SUCCESS;
+            }))
+        );
+    }
+
+    private void dump(ModuleProfiler.Format format) {
+        try {
+            File file = ModuleProfiler.save(format);
+            info("Saved profiler results to (highlight)%s(default).", file.getName());
+        } catch (IOException e) {
+            error("Failed to save profiler results.");
+            MeteorClient.LOG.error("Failed to save profiler results.", e);
+        }
+    }
+}
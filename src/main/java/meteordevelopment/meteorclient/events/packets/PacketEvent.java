@@ -9,36 +9,120 @@ import meteordevelopment.meteorclient.events.Cancellable;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.Packet;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Packet events are reused, {@code get()} hands out an instance that stays valid until the matching {@code release()}.
+ * Packets can be sent from inside a handler, so every thread keeps a stack of instances instead of a single one.
+ * Handlers that want to filter by packet class can use {@link PacketHandler}.
+ */
 public class PacketEvent {
     public static class Receive extends Cancellable {
+        private static final ThreadLocal<EventStack<Receive>> STACK = ThreadLocal.withInitial(() -> new EventStack<>(Receive::new));
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Receive() {
+        }
+
         public Receive(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Receive get(Packet<?> packet, ClientConnection connection) {
+            Receive event = STACK.get().push();
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            packet = null;
+            connection = null;
+            STACK.get().pop();
+        }
     }
 
     public static class Send extends Cancellable {
+        private static final ThreadLocal<EventStack<Send>> STACK = ThreadLocal.withInitial(() -> new EventStack<>(Send::new));
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Send() {
+        }
+
         public Send(Packet<?> packet, ClientConnection connection) {
             this.setCancelled(false);
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Send get(Packet<?> packet, ClientConnection connection) {
+            Send event = STACK.get().push();
+            event.setCancelled(false);
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            packet = null;
+            connection = null;
+            STACK.get().pop();
+        }
     }
 
     public static class Sent {
+        private static final ThreadLocal<EventStack<Sent>> STACK = ThreadLocal.withInitial(() -> new EventStack<>(Sent::new));
+
         public Packet<?> packet;
         public ClientConnection connection;
 
+        private Sent() {
+        }
+
         public Sent(Packet<?> packet, ClientConnection connection) {
             this.packet = packet;
             this.connection = connection;
         }
+
+        public static Sent get(Packet<?> packet, ClientConnection connection) {
+            Sent event = STACK.get().push();
+            event.packet = packet;
+            event.connection = connection;
+            return event;
+        }
+
+        public void release() {
+            packet = null;
+            connection = null;
+            STACK.get().pop();
+        }
+    }
+
+    private static class EventStack<T> {
+        private final Supplier<T> factory;
+        private final List<T> events = new ArrayList<>();
+        private int depth;
+
+        public EventStack(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public T push() {
+            if (depth == events.size()) events.add(factory.get());
+            return events.get(depth++);
+        }
+
+        public void pop() {
+            if (depth > 0) depth--;
+        }
     }
 }
@@ -0,0 +1,27 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.events.packets;
+
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.network.packet.Packet;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method taking a {@link PacketEvent.Receive}, {@link PacketEvent.Send} or {@link PacketEvent.Sent} that is only
+ * called for packets that are instances of one of the given classes. Registered by {@link PacketListeners#subscribe(Object)},
+ * modules do that automatically together with their event handlers.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PacketHandler {
+    Class<? extends Packet<?>>[] value();
+
+    int priority() default EventPriority.MEDIUM;
+}
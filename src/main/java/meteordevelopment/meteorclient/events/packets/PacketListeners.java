@@ -0,0 +1,271 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.events.packets;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.ModuleProfiler;
+import meteordevelopment.meteorclient.utils.network.PacketUtils;
+import meteordevelopment.orbit.ICancellable;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+import net.minecraft.network.packet.Packet;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Dispatches packet events to {@link PacketHandler} methods. Every event type and priority gets one listener on the event
+ * bus, so handlers still run in priority order together with normal {@code @EventHandler} methods, but the listener
+ * only calls the handlers registered for the class of the packet. The handlers of every packet class in
+ * {@link PacketUtils#REGISTRY} are resolved when something subscribes, other classes are resolved the first time they
+ * are seen.
+ */
+public class PacketListeners {
+    private static final Map<Class<?>, List<HandlerMethod>> METHODS = new HashMap<>();
+    private static final Map<Object, List<Handler>> SUBSCRIBED = new IdentityHashMap<>();
+    private static final Map<Class<?>, Dispatcher<?>[]> DISPATCHERS = new HashMap<>();
+
+    private PacketListeners() {
+    }
+
+    public static synchronized void subscribe(Object object) {
+        subscribe(object.getClass(), object);
+    }
+
+    public static synchronized void subscribe(Class<?> klass) {
+        subscribe(klass, null);
+    }
+
+    public static synchronized void unsubscribe(Object object) {
+        List<Handler> handlers = SUBSCRIBED.remove(object);
+        if (handlers == null) return;
+
+        for (Handler handler : handlers) handler.dispatcher.remove(handler);
+    }
+
+    public static synchronized void unsubscribe(Class<?> klass) {
+        unsubscribe((Object) klass);
+    }
+
+    private static void subscribe(Class<?> klass, Object object) {
+        Object key = object != null ? object : klass;
+        if (SUBSCRIBED.containsKey(key)) return;
+
+        List<HandlerMethod> methods = getMethods(klass);
+        List<Handler> handlers = new ArrayList<>();
+
+        for (HandlerMethod method : methods) {
+            if (method.isStatic != (object == null)) continue;
+
+            Dispatcher<?> dispatcher = getDispatcher(method.event, method.priority);
+            Handler handler = new Handler(dispatcher, method.packets, method.create(object), object);
+
+            dispatcher.add(handler);
+            handlers.add(handler);
+        }
+
+        if (!handlers.isEmpty()) SUBSCRIBED.put(key, handlers);
+    }
+
+    // Methods
+
+    private static List<HandlerMethod> getMethods(Class<?> klass) {
+        List<HandlerMethod> methods = METHODS.get(klass);
+        if (methods != null) return methods;
+
+        methods = new ArrayList<>();
+
+        for (Class<?> c = klass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                PacketHandler annotation = method.getAnnotation(PacketHandler.class);
+                if (annotation == null) continue;
+
+                if (method.getParameterCount() != 1 || getter(method.getParameterTypes()[0]) == null) {
+                    throw new IllegalArgumentException("Packet handler " + c.getName() + "." + method.getName() + " needs a single PacketEvent.Receive, PacketEvent.Send or PacketEvent.Sent parameter.");
+                }
+
+                methods.add(new HandlerMethod(method, annotation.value(), annotation.priority()));
+            }
+        }
+
+        METHODS.put(klass, methods);
+        return methods;
+    }
+
+    private static Function<Object, Packet<?>> getter(Class<?> event) {
+        if (event == PacketEvent.Receive.class) return e -> ((PacketEvent.Receive) e).packet;
+        if (event == PacketEvent.Send.class) return e -> ((PacketEvent.Send) e).packet;
+        if (event == PacketEvent.Sent.class) return e -> ((PacketEvent.Sent) e).packet;
+        return null;
+    }
+
+    private static Dispatcher<?> getDispatcher(Class<?> event, int priority) {
+        Dispatcher<?>[] dispatchers = DISPATCHERS.get(event);
+
+        if (dispatchers != null) {
+            for (Dispatcher<?> dispatcher : dispatchers) {
+                if (dispatcher.priority == priority) return dispatcher;
+            }
+        }
+        else dispatchers = new Dispatcher<?>[0];
+
+        Dispatcher<?> dispatcher = new Dispatcher<>(event, priority, getter(event));
+
+        dispatchers = Arrays.copyOf(dispatchers, dispatchers.length + 1);
+        dispatchers[dispatchers.length - 1] = dispatcher;
+        DISPATCHERS.put(event, dispatchers);
+
+        return dispatcher;
+    }
+
+    private static class HandlerMethod {
+        private final Class<?> event;
+        private final Class<?>[] packets;
+        private final int priority;
+        private final boolean isStatic;
+        private final MethodHandle factory;
+
+        public HandlerMethod(Method method, Class<?>[] packets, int priority) {
+            this.event = method.getParameterTypes()[0];
+            this.packets = packets;
+            this.priority = priority;
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+
+            // Same as orbit, a lambda is a lot faster to call than reflection
+            try {
+                Class<?> owner = method.getDeclaringClass();
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+
+                CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    isStatic ? MethodType.methodType(Consumer.class) : MethodType.methodType(Consumer.class, owner),
+                    MethodType.methodType(void.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, event)
+                );
+
+                factory = site.getTarget();
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to create packet handler for " + method, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public Consumer<Object> create(Object object) {
+            try {
+                return (Consumer<Object>) (isStatic ? factory.invoke() : factory.invoke(object));
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    // Dispatching
+
+    private record Handler(Dispatcher<?> dispatcher, Class<?>[] packets, Consumer<Object> executor, Object owner) {
+        public boolean accepts(Class<?> packet) {
+            for (Class<?> klass : packets) {
+                if (klass.isAssignableFrom(packet)) return true;
+            }
+
+            return false;
+        }
+    }
+
+    private static class Dispatcher<E> {
+        private static final Handler[] EMPTY = new Handler[0];
+
+        private final int priority;
+        private final Function<Object, Packet<?>> packet;
+        private final ConsumerListener<E> listener;
+
+        private final List<Handler> handlers = new ArrayList<>();
+        private volatile Reference2ObjectOpenHashMap<Class<?>, Handler[]> byPacket = new Reference2ObjectOpenHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        public Dispatcher(Class<?> event, int priority, Function<Object, Packet<?>> packet) {
+            this.priority = priority;
+            this.packet = packet;
+            this.listener = new ConsumerListener<>((Class<E>) event, priority, this::dispatch);
+        }
+
+        public void add(Handler handler) {
+            handlers.add(handler);
+            rebuild();
+
+            if (handlers.size() == 1) MeteorClient.EVENT_BUS.subscribe(listener);
+        }
+
+        public void remove(Handler handler) {
+            if (!handlers.remove(handler)) return;
+            rebuild();
+
+            if (handlers.isEmpty()) MeteorClient.EVENT_BUS.unsubscribe(listener);
+        }
+
+        /** Packets are received on the netty thread, so the map is never modified once published. */
+        private void rebuild() {
+            Reference2ObjectOpenHashMap<Class<?>, Handler[]> map = new Reference2ObjectOpenHashMap<>();
+            for (Class<? extends Packet<?>> klass : PacketUtils.REGISTRY) map.put(klass, resolve(klass));
+
+            byPacket = map;
+        }
+
+        private Handler[] resolve(Class<?> klass) {
+            List<Handler> list = null;
+
+            for (Handler handler : handlers) {
+                if (!handler.accepts(klass)) continue;
+
+                if (list == null) list = new ArrayList<>();
+                list.add(handler);
+            }
+
+            return list == null ? EMPTY : list.toArray(EMPTY);
+        }
+
+        private void dispatch(E event) {
+            Packet<?> p = packet.apply(event);
+            if (p == null) return;
+
+            Handler[] matching = byPacket.get(p.getClass());
+            if (matching == null) matching = resolveUnknown(p.getClass());
+
+            for (Handler handler : matching) {
+                if (ModuleProfiler.isRunning() && handler.owner instanceof Module module) {
+                    long start = System.nanoTime();
+                    handler.executor.accept(event);
+                    ModuleProfiler.getStats(module, event.getClass()).record(System.nanoTime() - start);
+                }
+                else handler.executor.accept(event);
+
+                if (event instanceof ICancellable cancellable && cancellable.isCancelled()) break;
+            }
+        }
+
+        /** Packet classes missing from the registry, like ones added by other mods, are added to the map the first time they show up. */
+        private Handler[] resolveUnknown(Class<?> klass) {
+            synchronized (PacketListeners.class) {
+                Handler[] handlers = byPacket.get(klass);
+                if (handlers != null) return handlers;
+
+                handlers = resolve(klass);
+
+                Reference2ObjectOpenHashMap<Class<?>, Handler[]> map = new Reference2ObjectOpenHashMap<>(byPacket);
+                map.put(klass, handlers);
+                byPacket = map;
+
+                return handlers;
+            }
+        }
+    }
+}
@@ -80,7 +80,7 @@ public class ModulesScreen extends TabScreen {
     protected void createSearchW(WContainer w, String text) {
         if (!text.isEmpty()) {
             // Titles
-            Set<Module> modules = Modules.get().searchTitles(text);
+            Set<Module> modules = Modules.get().searchTitles(text, Config.get().moduleSearchCount.get());
 
             if (!modules.isEmpty()) {
                 WSection section = w.add(theme.section("Modules")).expandX().widget();
@@ -95,7 +95,7 @@ public class ModulesScreen extends TabScreen {
             }
 
             // Settings
-            modules = Modules.get().searchSettingTitles(text);
+            modules = Modules.get().searchSettingTitles(text, Config.get().moduleSearchCount.get());
 
             if (!modules.isEmpty()) {
                 WSection section = w.add(theme.section("Settings")).expandX().widget();
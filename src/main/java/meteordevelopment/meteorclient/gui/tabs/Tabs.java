@@ -26,6 +26,7 @@ public class Tabs {
         add(new HudTab());
         add(new FriendsTab());
         add(new MacrosTab());
+        add(new ProfilerTab());
         add(new ProfilesTab());
 
         if (PathManagers.get().getSettings().get().sizeGroups() > 0) {
@@ -0,0 +1,126 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.gui.tabs.builtin;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.gui.GuiTheme;
+import meteordevelopment.meteorclient.gui.tabs.Tab;
+import meteordevelopment.meteorclient.gui.tabs.TabScreen;
+import meteordevelopment.meteorclient.gui.tabs.WindowTabScreen;
+import meteordevelopment.meteorclient.gui.widgets.containers.WHorizontalList;
+import meteordevelopment.meteorclient.gui.widgets.containers.WTable;
+import meteordevelopment.meteorclient.gui.widgets.pressable.WButton;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.ModuleProfiler;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+public class ProfilerTab extends Tab {
+    public ProfilerTab() {
+        super("Profiler");
+    }
+
+    @Override
+    public TabScreen createScreen(GuiTheme theme) {
+        return new ProfilerScreen(theme, this);
+    }
+
+    @Override
+    public boolean isScreen(Screen screen) {
+        return screen instanceof ProfilerScreen;
+    }
+
+    private static class ProfilerScreen extends WindowTabScreen {
+        public ProfilerScreen(GuiTheme theme, Tab tab) {
+            super(theme, tab);
+        }
+
+        @Override
+        public void initWidgets() {
+            WHorizontalList controls = add(theme.horizontalList()).expandX().widget();
+
+            WButton toggle = controls.add(theme.button(ModuleProfiler.isRunning() ? "Stop" : "Start")).widget();
+            toggle.action = () -> {
+                if (ModuleProfiler.isRunning()) ModuleProfiler.stop();
+                else ModuleProfiler.start();
+
+                reload();
+            };
+
+            WButton refresh = controls.add(theme.button("Refresh")).widget();
+            refresh.action = this::reload;
+
+            WButton reset = controls.add(theme.button("Reset")).widget();
+            reset.action = () -> {
+                ModuleProfiler.reset();
+                reload();
+            };
+
+            WButton json = controls.add(theme.button("Save JSON")).widget();
+            json.action = () -> save(ModuleProfiler.Format.Json);
+
+            WButton csv = controls.add(theme.button("Save CSV")).widget();
+            csv.action = () -> save(ModuleProfiler.Format.Csv);
+
+            add(theme.label(String.format(Locale.ROOT, "%s for %.1f seconds", ModuleProfiler.isRunning() ? "Running" : "Stopped", ModuleProfiler.getSeconds())));
+            add(theme.horizontalSeparator()).expandX();
+
+            List<ModuleProfiler.Entry> entries = ModuleProfiler.getEntries();
+
+            if (entries.isEmpty()) {
+                add(theme.label(ModuleProfiler.isRunning() ? "No module handled an event yet." : "Start the profiler to measure active modules."));
+                return;
+            }
+
+            WTable table = add(theme.table()).expandX().widget();
+            initTable(table, entries);
+        }
+
+        private void initTable(WTable table, List<ModuleProfiler.Entry> entries) {
+            double seconds = Math.max(ModuleProfiler.getSeconds(), 0.001);
+
+            table.add(theme.label("Module", true));
+            table.add(theme.label("Event", true));
+            table.add(theme.label("Calls", true));
+            table.add(theme.label("Mean", true));
+            table.add(theme.label("P99", true));
+            table.add(theme.label("Max", true));
+            table.add(theme.label("ms/s", true));
+            table.row();
+
+            Module previous = null;
+
+            for (ModuleProfiler.Entry entry : entries) {
+                ModuleProfiler.Stats stats = entry.stats();
+
+                table.add(theme.label(entry.module() != previous ? entry.module().title : ""));
+                table.add(theme.label(ModuleProfiler.getEventName(entry.event())));
+                table.add(theme.label(Long.toString(stats.getCalls())));
+                table.add(theme.label(ModuleProfiler.formatNanos(stats.getMeanNanos())));
+                table.add(theme.label(ModuleProfiler.formatNanos(stats.getPercentileNanos(0.99))));
+                table.add(theme.label(ModuleProfiler.formatNanos(stats.getMaxNanos())));
+                table.add(theme.label(String.format(Locale.ROOT, "%.3f", stats.getTotalNanos() / 1_000_000.0 / seconds)));
+                table.row();
+
+                previous = entry.module();
+            }
+        }
+
+        private void save(ModuleProfiler.Format format) {
+            try {
+                File file = ModuleProfiler.save(format);
+                Util.getOperatingSystem().open(file.getParentFile());
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to save profiler results.", e);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.misc.InventoryTweaks;
 import meteordevelopment.meteorclient.systems.modules.player.BreakDelay;
 import meteordevelopment.meteorclient.systems.modules.player.SpeedMine;
+import meteordevelopment.meteorclient.utils.player.InventoryIndex;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
@@ -97,6 +98,17 @@ public abstract class ClientPlayerInteractionManagerMixin implements IClientPlay
         }
     }
 
+    @Inject(method = "clickSlot", at = @At("TAIL"))
+    private void onClickSlotTail(int syncId, int slotId, int button, SlotActionType actionType, PlayerEntity player, CallbackInfo info) {
+        // The server doesn't resend slots it agrees with
+        InventoryIndex.invalidate();
+    }
+
+    @Inject(method = "clickCreativeStack", at = @At("TAIL"))
+    private void onClickCreativeStack(ItemStack stack, int slotId, CallbackInfo info) {
+        InventoryIndex.invalidate();
+    }
+
     @Inject(method = "attackBlock", at = @At("HEAD"), cancellable = true)
     private void onAttackBlock(BlockPos blockPos, Direction direction, CallbackInfoReturnable<Boolean> info) {
         if (MeteorClient.EVENT_BUS.post(StartBreakingBlockEvent.get(blockPos, direction)).isCancelled()) info.cancel();
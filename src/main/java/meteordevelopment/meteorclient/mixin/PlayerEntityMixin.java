@@ -10,6 +10,8 @@ import com.llamalad7.mixinextras.injector.v2.WrapWithCondition;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.entity.DropItemsEvent;
 import meteordevelopment.meteorclient.events.entity.player.ClipAtLedgeEvent;
+import meteordevelopment.meteorclient.mixininterface.IPlayerEntity;
+import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.systems.modules.movement.*;
 import meteordevelopment.meteorclient.systems.modules.player.Reach;
@@ -28,6 +30,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -35,10 +38,16 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 @Mixin(PlayerEntity.class)
-public abstract class PlayerEntityMixin extends LivingEntity {
+public abstract class PlayerEntityMixin extends LivingEntity implements IPlayerEntity {
     @Shadow
     public abstract PlayerAbilities getAbilities();
 
+    @Unique
+    private int friendVersion = -1;
+
+    @Unique
+    private boolean friend;
+
     protected PlayerEntityMixin(EntityType<? extends LivingEntity> entityType, World world) {
         super(entityType, world);
     }
@@ -121,4 +130,16 @@ public abstract class PlayerEntityMixin extends LivingEntity {
     private double modifyEntityInteractionRange(double original) {
         return Math.max(0, original + Modules.get().get(Reach.class).entityReach());
     }
+
+    @Override
+    public boolean meteor$isFriend() {
+        Friends friends = Friends.get();
+
+        if (friendVersion != friends.getVersion()) {
+            friend = friends.get((PlayerEntity) (Object) this) != null;
+            friendVersion = friends.getVersion();
+        }
+
+        return friend;
+    }
 }
@@ -0,0 +1,15 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.mixininterface;
+
+public interface IPlayerEntity {
+    /**
+     * Whether this player is a friend, the result is cached on the entity until the friend list changes.
+     *
+     * @see meteordevelopment.meteorclient.systems.friends.Friends#isFriend(net.minecraft.entity.player.PlayerEntity)
+     */
+    boolean meteor$isFriend();
+}
@@ -14,9 +14,10 @@ import meteordevelopment.meteorclient.renderer.text.FontFamily;
 import meteordevelopment.meteorclient.renderer.text.FontInfo;
 import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
+import meteordevelopment.meteorclient.utils.render.FontIndex;
 import meteordevelopment.meteorclient.utils.render.FontUtils;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -32,30 +33,73 @@ public class Fonts {
     public static final List<FontFamily> FONT_FAMILIES = new ArrayList<>();
     public static CustomTextRenderer RENDERER;
 
+    private static int refreshes;
+    private static boolean loading;
+
     private Fonts() {
     }
 
-    @PreInit(dependencies = Shaders.class)
+    @PreInit(dependencies = { Shaders.class, MeteorExecutor.class })
     public static void refresh() {
-        FONT_FAMILIES.clear();
+        List<FontFamily> builtin = new ArrayList<>();
 
         for (String builtinFont : BUILTIN_FONTS) {
-            FontUtils.loadBuiltin(FONT_FAMILIES, builtinFont);
-        }
-
-        for (String fontPath : FontUtils.getSearchPaths()) {
-            FontUtils.loadSystem(FONT_FAMILIES, new File(fontPath));
+            FontUtils.loadBuiltin(builtin, builtinFont);
         }
 
-        FONT_FAMILIES.sort(Comparator.comparing(FontFamily::getName));
-
-        MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
+        setFamilies(builtin);
 
         DEFAULT_FONT_FAMILY = FontUtils.getBuiltinFontInfo(BUILTIN_FONTS[1]).family();
         DEFAULT_FONT = getFamily(DEFAULT_FONT_FAMILY).get(FontInfo.Type.Regular);
 
         Config config = Config.get();
         load(config != null ? config.font.get() : DEFAULT_FONT);
+
+        // System fonts are indexed in the background, the builtin fonts are usable until they are in
+        int generation = ++refreshes;
+        loading = true;
+
+        MeteorExecutor.execute(() -> {
+            List<FontFamily> families = new ArrayList<>();
+
+            for (FontFamily family : builtin) {
+                for (FontInfo.Type type : FontInfo.Type.values()) {
+                    FontFace fontFace = family.get(type);
+                    if (fontFace != null) FontUtils.addFont(families, fontFace);
+                }
+            }
+
+            try {
+                FontUtils.loadSystem(families, FontIndex.scan());
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to load system fonts.", e);
+            }
+
+            mc.execute(() -> {
+                // A newer refresh was started in the meantime
+                if (generation != refreshes) return;
+
+                setFamilies(families);
+                loading = false;
+
+                Config c = Config.get();
+                if (c != null) c.font.resolvePending();
+            });
+        });
+    }
+
+    private static void setFamilies(List<FontFamily> families) {
+        families.sort(Comparator.comparing(FontFamily::getName));
+
+        FONT_FAMILIES.clear();
+        FONT_FAMILIES.addAll(families);
+
+        MeteorClient.LOG.info("Found {} font families.", FONT_FAMILIES.size());
+    }
+
+    /** Whether system fonts are still being indexed and {@link #FONT_FAMILIES} only holds the builtin fonts. */
+    public static boolean isLoading() {
+        return loading;
     }
 
     public static void load(FontFace fontFace) {
@@ -83,7 +127,11 @@ public class Fonts {
     }
 
     public static FontFamily getFamily(String name) {
-        for (FontFamily fontFamily : Fonts.FONT_FAMILIES) {
+        return getFamily(FONT_FAMILIES, name);
+    }
+
+    public static FontFamily getFamily(List<FontFamily> families, String name) {
+        for (FontFamily fontFamily : families) {
             if (fontFamily.getName().equalsIgnoreCase(name)) {
                 return fontFamily;
             }
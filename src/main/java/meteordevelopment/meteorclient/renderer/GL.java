@@ -13,6 +13,8 @@ import net.minecraft.client.texture.AbstractTexture;
 import net.minecraft.util.Identifier;
 import org.joml.Matrix4f;
 import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.ARBBufferStorage;
+import org.lwjgl.opengl.GL33C;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
@@ -107,10 +109,56 @@ public class GL {
         GlStateManager._glBufferData(target, data, usage);
     }
 
+    public static void bufferSubData(int target, long offset, ByteBuffer data) {
+        glBufferSubData(target, offset, data);
+    }
+
+    public static void bufferStorage(int target, long size, int flags) {
+        ARBBufferStorage.glBufferStorage(target, size, flags);
+    }
+
+    public static ByteBuffer mapBufferRange(int target, long offset, long length, int access) {
+        return glMapBufferRange(target, offset, length, access);
+    }
+
+    public static boolean supportsBufferStorage() {
+        return org.lwjgl.opengl.GL.getCapabilities().GL_ARB_buffer_storage;
+    }
+
     public static void drawElements(int mode, int first, int type) {
         GlStateManager._drawElements(mode, first, type, 0);
     }
 
+    public static void drawElementsBaseVertex(int mode, int count, int type, long indicesOffset, int baseVertex) {
+        glDrawElementsBaseVertex(mode, count, type, indicesOffset, baseVertex);
+    }
+
+    public static boolean supportsInstancing() {
+        return org.lwjgl.opengl.GL.getCapabilities().OpenGL33;
+    }
+
+    public static void drawElementsInstanced(int mode, int count, int type, long indicesOffset, int instances) {
+        glDrawElementsInstanced(mode, count, type, indicesOffset, instances);
+    }
+
+    // Sync
+
+    public static long fenceSync() {
+        return glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+    }
+
+    public static void waitSync(long sync) {
+        int status;
+
+        do {
+            status = glClientWaitSync(sync, GL_SYNC_FLUSH_COMMANDS_BIT, 1_000_000);
+        } while (status == GL_TIMEOUT_EXPIRED);
+    }
+
+    public static void deleteSync(long sync) {
+        glDeleteSync(sync);
+    }
+
     // Vertex attributes
 
     public static void enableVertexAttribute(int i) {
@@ -121,6 +169,14 @@ public class GL {
         GlStateManager._vertexAttribPointer(index, size, type, normalized, stride, pointer);
     }
 
+    public static void vertexAttributeInt(int index, int size, int type, int stride, long pointer) {
+        glVertexAttribIPointer(index, size, type, stride, pointer);
+    }
+
+    public static void vertexAttributeDivisor(int index, int divisor) {
+        GL33C.glVertexAttribDivisor(index, divisor);
+    }
+
     // Shaders
 
     public static int createShader(int type) {
@@ -0,0 +1,285 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import meteordevelopment.meteorclient.utils.render.color.Color;
+import meteordevelopment.meteorclient.utils.world.Dir;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import org.joml.Matrix4fStack;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+import static org.lwjgl.opengl.GL32C.*;
+import static org.lwjgl.system.MemoryUtil.*;
+
+/**
+ * Draws axis aligned boxes with instancing. A unit cube for sides and one for lines are uploaded once, every box only
+ * adds a 36 byte record with its corners, colors and excluded directions, and all boxes are drawn with one call per
+ * shape mode. Same output as {@link Renderer3D#box(double, double, double, double, double, double, Color, Color, ShapeMode, int)},
+ * which is used instead when instancing isn't supported.
+ */
+public class InstancedBoxes {
+    // min, max, side color, line color, flags
+    private static final int STRIDE = 12 + 12 + 4 + 4 + 4;
+
+    // Dir uses bits 1 to 6, these hide a whole shape mode of a single box
+    private static final int NO_SIDES = 1;
+    private static final int NO_LINES = 1 << 7;
+
+    private static final int CUBE_STRIDE = 12 + 4;
+
+    // Shared by every renderer, created the first time one of them draws boxes
+    private static int cubeVbo, sidesIbo, linesIbo;
+    private static int sidesVao, linesVao;
+
+    private final Renderer3D fallback;
+    private final boolean supported;
+
+    private StreamBuffer instanceStream;
+
+    private ByteBuffer instances;
+    private long instancesPointer;
+    private int count;
+
+    private double cameraX, cameraZ;
+
+    public InstancedBoxes(Renderer3D fallback) {
+        this.fallback = fallback;
+        this.supported = GL.supportsInstancing();
+    }
+
+    public void begin() {
+        count = 0;
+
+        Vec3d camera = mc.gameRenderer.getCamera().getPos();
+        cameraX = camera.x;
+        cameraZ = camera.z;
+    }
+
+    public void box(double x1, double y1, double z1, double x2, double y2, double z2, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        if (!supported) {
+            fallback.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, mode, excludeDir);
+            return;
+        }
+
+        if (instances == null) {
+            instances = BufferUtils.createByteBuffer(STRIDE * 256);
+            instancesPointer = memAddress0(instances);
+        }
+        else if ((count + 1) * STRIDE > instances.capacity()) {
+            ByteBuffer newInstances = BufferUtils.createByteBuffer(instances.capacity() * 2);
+            memCopy(instancesPointer, memAddress0(newInstances), (long) count * STRIDE);
+
+            instances = newInstances;
+            instancesPointer = memAddress0(instances);
+        }
+
+        long p = instancesPointer + (long) count * STRIDE;
+
+        memPutFloat(p, (float) (x1 - cameraX));
+        memPutFloat(p + 4, (float) y1);
+        memPutFloat(p + 8, (float) (z1 - cameraZ));
+        memPutFloat(p + 12, (float) (x2 - cameraX));
+        memPutFloat(p + 16, (float) y2);
+        memPutFloat(p + 20, (float) (z2 - cameraZ));
+
+        putColor(p + 24, sideColor);
+        putColor(p + 28, lineColor);
+
+        int flags = excludeDir;
+        if (!mode.sides()) flags |= NO_SIDES;
+        if (!mode.lines()) flags |= NO_LINES;
+        memPutInt(p + 32, flags);
+
+        count++;
+    }
+
+    public void box(BlockPos pos, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        box(pos.getX(), pos.getY(), pos.getZ(), pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1, sideColor, lineColor, mode, excludeDir);
+    }
+
+    public void box(Box box, Color sideColor, Color lineColor, ShapeMode mode, int excludeDir) {
+        box(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, sideColor, lineColor, mode, excludeDir);
+    }
+
+    public void render(MatrixStack matrices) {
+        if (!supported || count == 0) return;
+
+        if (cubeVbo == 0) createCube();
+        if (instanceStream == null) instanceStream = new StreamBuffer(GL_ARRAY_BUFFER, STRIDE * 4096L);
+
+        long offset = instanceStream.upload(instancesPointer, (long) count * STRIDE, STRIDE);
+
+        GL.saveState();
+        GL.disableDepth();
+        GL.enableBlend();
+        GL.disableCull();
+        GL.enableLineSmooth();
+
+        Matrix4fStack matrixStack = RenderSystem.getModelViewStack();
+        matrixStack.pushMatrix();
+
+        if (matrices != null) matrixStack.mul(matrices.peek().getPositionMatrix());
+
+        Vec3d cameraPos = mc.gameRenderer.getCamera().getPos();
+        matrixStack.translate((float) (cameraX - cameraPos.x), (float) -cameraPos.y, (float) (cameraZ - cameraPos.z));
+
+        Shaders.BOX_INSTANCED.bind();
+        Shader.BOUND.setDefaults();
+
+        // Same order as Renderer3D.render()
+        Shaders.BOX_INSTANCED.set("u_Lines", true);
+        bindInstances(linesVao, offset);
+        GL.drawElementsInstanced(GL_LINES, 24, GL_UNSIGNED_INT, 0, count);
+
+        Shaders.BOX_INSTANCED.set("u_Lines", false);
+        bindInstances(sidesVao, offset);
+        GL.drawElementsInstanced(GL_TRIANGLES, 36, GL_UNSIGNED_INT, 0, count);
+
+        instanceStream.fence();
+        GL.bindVertexArray(0);
+
+        matrixStack.popMatrix();
+        GL.restoreState();
+    }
+
+    public void destroy() {
+        if (instanceStream != null) {
+            instanceStream.destroy();
+            instanceStream = null;
+        }
+
+        instances = null;
+        count = 0;
+    }
+
+    private static void putColor(long p, Color c) {
+        memPutByte(p, (byte) c.r);
+        memPutByte(p + 1, (byte) c.g);
+        memPutByte(p + 2, (byte) c.b);
+        memPutByte(p + 3, (byte) c.a);
+    }
+
+    // Setup
+
+    /** The ring can be recreated when it grows, so the instance attributes are pointed at the current upload before every draw. */
+    private void bindInstances(int vao, long offset) {
+        GL.bindVertexArray(vao);
+        GL.bindVertexBuffer(instanceStream.getId());
+
+        GL.vertexAttribute(2, 3, GL_FLOAT, false, STRIDE, offset);
+        GL.vertexAttribute(3, 3, GL_FLOAT, false, STRIDE, offset + 12);
+        GL.vertexAttribute(4, 4, GL_UNSIGNED_BYTE, true, STRIDE, offset + 24);
+        GL.vertexAttribute(5, 4, GL_UNSIGNED_BYTE, true, STRIDE, offset + 28);
+        GL.vertexAttributeInt(6, 1, GL_INT, STRIDE, offset + 32);
+
+        GL.bindVertexBuffer(0);
+    }
+
+    @SuppressWarnings("Duplicates")
+    private static void createCube() {
+        ByteBuffer vertices = BufferUtils.createByteBuffer(48 * CUBE_STRIDE);
+        ByteBuffer sides = BufferUtils.createByteBuffer(36 * 4);
+        ByteBuffer lines = BufferUtils.createByteBuffer(24 * 4);
+
+        // Every face and edge gets its own vertices so they can be hidden separately, see Renderer3D.boxSides()
+        int[] vertex = { 0 };
+
+        face(vertices, sides, vertex, Dir.WEST, 0, 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0);
+        face(vertices, sides, vertex, Dir.EAST, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1);
+        face(vertices, sides, vertex, Dir.NORTH, 0, 0, 0, 0, 1, 0, 1, 1, 0, 1, 0, 0);
+        face(vertices, sides, vertex, Dir.SOUTH, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1);
+        face(vertices, sides, vertex, Dir.DOWN, 0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 0, 1);
+        face(vertices, sides, vertex, Dir.UP, 0, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 0);
+
+        // See Renderer3D.boxLines()
+        edge(vertices, lines, vertex, Dir.WEST | Dir.NORTH, 0, 0, 0, 0, 1, 0);
+        edge(vertices, lines, vertex, Dir.WEST | Dir.SOUTH, 0, 0, 1, 0, 1, 1);
+        edge(vertices, lines, vertex, Dir.EAST | Dir.NORTH, 1, 0, 0, 1, 1, 0);
+        edge(vertices, lines, vertex, Dir.EAST | Dir.SOUTH, 1, 0, 1, 1, 1, 1);
+
+        edge(vertices, lines, vertex, Dir.WEST | Dir.DOWN, 0, 0, 0, 0, 0, 1);
+        edge(vertices, lines, vertex, Dir.EAST | Dir.DOWN, 1, 0, 0, 1, 0, 1);
+        edge(vertices, lines, vertex, Dir.NORTH | Dir.DOWN, 0, 0, 0, 1, 0, 0);
+        edge(vertices, lines, vertex, Dir.SOUTH | Dir.DOWN, 0, 0, 1, 1, 0, 1);
+
+        edge(vertices, lines, vertex, Dir.WEST | Dir.UP, 0, 1, 0, 0, 1, 1);
+        edge(vertices, lines, vertex, Dir.EAST | Dir.UP, 1, 1, 0, 1, 1, 1);
+        edge(vertices, lines, vertex, Dir.NORTH | Dir.UP, 0, 1, 0, 1, 1, 0);
+        edge(vertices, lines, vertex, Dir.SOUTH | Dir.UP, 0, 1, 1, 1, 1, 1);
+
+        vertices.flip();
+        sides.flip();
+        lines.flip();
+
+        cubeVbo = GL.genBuffer();
+        GL.bindVertexBuffer(cubeVbo);
+        GL.bufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
+        GL.bindVertexBuffer(0);
+
+        sidesIbo = GL.genBuffer();
+        sidesVao = createVertexArray(sidesIbo, sides);
+
+        linesIbo = GL.genBuffer();
+        linesVao = createVertexArray(linesIbo, lines);
+    }
+
+    private static int createVertexArray(int ibo, ByteBuffer indices) {
+        int vao = GL.genVertexArray();
+        GL.bindVertexArray(vao);
+
+        GL.bindIndexBuffer(ibo);
+        GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+
+        GL.bindVertexBuffer(cubeVbo);
+        GL.enableVertexAttribute(0);
+        GL.vertexAttribute(0, 3, GL_FLOAT, false, CUBE_STRIDE, 0);
+        GL.enableVertexAttribute(1);
+        GL.vertexAttributeInt(1, 1, GL_INT, CUBE_STRIDE, 12);
+
+        for (int i = 2; i <= 6; i++) {
+            GL.enableVertexAttribute(i);
+            GL.vertexAttributeDivisor(i, 1);
+        }
+
+        GL.bindVertexArray(0);
+        GL.bindVertexBuffer(0);
+        GL.bindIndexBuffer(0);
+
+        return vao;
+    }
+
+    private static void face(ByteBuffer vertices, ByteBuffer indices, int[] vertex, int dir, int... corners) {
+        int first = vertex[0];
+
+        for (int i = 0; i < 4; i++) {
+            vertices.putFloat(corners[i * 3]).putFloat(corners[i * 3 + 1]).putFloat(corners[i * 3 + 2]).putInt(dir | NO_SIDES);
+        }
+
+        indices.putInt(first).putInt(first + 1).putInt(first + 2);
+        indices.putInt(first + 2).putInt(first + 3).putInt(first);
+
+        vertex[0] += 4;
+    }
+
+    private static void edge(ByteBuffer vertices, ByteBuffer indices, int[] vertex, int dirs, int... corners) {
+        int first = vertex[0];
+
+        for (int i = 0; i < 2; i++) {
+            vertices.putFloat(corners[i * 3]).putFloat(corners[i * 3 + 1]).putFloat(corners[i * 3 + 2]).putInt(dirs | NO_LINES);
+        }
+
+        indices.putInt(first).putInt(first + 1);
+
+        vertex[0] += 2;
+    }
+}
@@ -43,10 +43,21 @@ public class Mesh {
     public boolean depthTest = false;
     public double alpha = 1;
 
+    /** Retained meshes are built once and drawn over multiple frames, their buffers are uploaded as static data. */
+    public boolean retained = false;
+
     private final DrawMode drawMode;
-    private final int primitiveVerticesSize;
+    private final Attrib[] attributes;
+    private final int stride, primitiveVerticesSize;
+
+    // Created the first time the mesh is uploaded, so meshes can be built without a context
+    private int vao, vbo, ibo;
+    private int boundVbo, boundIbo;
 
-    private final int vao, vbo, ibo;
+    // Non retained meshes upload through rings instead of reallocating their buffers each time
+    private StreamBuffer vertexStream, indexStream;
+    private long indicesOffset;
+    private int baseVertex;
 
     private ByteBuffer vertices;
     private long verticesPointerStart, verticesPointer;
@@ -65,6 +76,8 @@ public class Mesh {
         for (Attrib attribute : attributes) stride += attribute.size;
 
         this.drawMode = drawMode;
+        this.attributes = attributes;
+        this.stride = stride;
         this.primitiveVerticesSize = stride * drawMode.indicesCount;
 
         vertices = BufferUtils.createByteBuffer(primitiveVerticesSize * 256 * 4);
@@ -72,14 +85,19 @@ public class Mesh {
 
         indices = BufferUtils.createByteBuffer(drawMode.indicesCount * 512 * 4);
         indicesPointer = memAddress0(indices);
+    }
 
+    private void create() {
         vao = GL.genVertexArray();
-        GL.bindVertexArray(vao);
-
         vbo = GL.genBuffer();
-        GL.bindVertexBuffer(vbo);
-
         ibo = GL.genBuffer();
+
+        setupVertexArray(vbo, ibo);
+    }
+
+    private void setupVertexArray(int vbo, int ibo) {
+        GL.bindVertexArray(vao);
+        GL.bindVertexBuffer(vbo);
         GL.bindIndexBuffer(ibo);
 
         int offset = 0;
@@ -95,12 +113,22 @@ public class Mesh {
         GL.bindVertexArray(0);
         GL.bindVertexBuffer(0);
         GL.bindIndexBuffer(0);
+
+        boundVbo = vbo;
+        boundIbo = ibo;
     }
 
     public void destroy() {
-        GL.deleteBuffer(ibo);
-        GL.deleteBuffer(vbo);
-        GL.deleteVertexArray(vao);
+        if (vertexStream != null) {
+            vertexStream.destroy();
+            indexStream.destroy();
+        }
+
+        if (vao != 0) {
+            GL.deleteBuffer(ibo);
+            GL.deleteBuffer(vbo);
+            GL.deleteVertexArray(vao);
+        }
     }
 
     public void begin() {
@@ -231,18 +259,45 @@ public class Mesh {
         if (!building) throw new IllegalStateException("Mesh.end() called while not building.");
 
         if (indicesCount > 0) {
-            GL.bindVertexBuffer(vbo);
-            GL.bufferData(GL_ARRAY_BUFFER, vertices.limit(getVerticesOffset()), GL_DYNAMIC_DRAW);
-            GL.bindVertexBuffer(0);
-
-            GL.bindIndexBuffer(ibo);
-            GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices.limit(indicesCount * 4), GL_DYNAMIC_DRAW);
-            GL.bindIndexBuffer(0);
+            if (retained) upload();
+            else stream();
         }
 
         building = false;
     }
 
+    private void upload() {
+        if (vao == 0) create();
+        if (boundVbo != vbo || boundIbo != ibo) setupVertexArray(vbo, ibo);
+
+        GL.bindVertexBuffer(vbo);
+        GL.bufferData(GL_ARRAY_BUFFER, vertices.limit(getVerticesOffset()), GL_STATIC_DRAW);
+        GL.bindVertexBuffer(0);
+
+        GL.bindIndexBuffer(ibo);
+        GL.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices.limit(indicesCount * 4), GL_STATIC_DRAW);
+        GL.bindIndexBuffer(0);
+
+        indicesOffset = 0;
+        baseVertex = 0;
+    }
+
+    private void stream() {
+        if (vao == 0) create();
+
+        if (vertexStream == null) {
+            vertexStream = new StreamBuffer(GL_ARRAY_BUFFER, vertices.capacity() * 3L);
+            indexStream = new StreamBuffer(GL_ELEMENT_ARRAY_BUFFER, indices.capacity() * 3L);
+        }
+
+        long verticesOffset = vertexStream.upload(verticesPointerStart, getVerticesOffset(), stride);
+        indicesOffset = indexStream.upload(indicesPointer, indicesCount * 4L, 4);
+        baseVertex = (int) (verticesOffset / stride);
+
+        // The rings recreate their buffers when they need to grow
+        if (boundVbo != vertexStream.getId() || boundIbo != indexStream.getId()) setupVertexArray(vertexStream.getId(), indexStream.getId());
+    }
+
     public void beginRender(MatrixStack matrices) {
         GL.saveState();
 
@@ -258,8 +313,10 @@ public class Mesh {
 
             if (matrices != null) matrixStack.mul(matrices.peek().getPositionMatrix());
 
+            // Vertices are relative to the camera position from when the mesh was built, which is only different from the
+            // current one for retained meshes
             Vec3d cameraPos = mc.gameRenderer.getCamera().getPos();
-            matrixStack.translate(0, (float) -cameraPos.y, 0);
+            matrixStack.translate((float) (cameraX - cameraPos.x), (float) -cameraPos.y, (float) (cameraZ - cameraPos.z));
         }
 
         beganRendering = true;
@@ -279,7 +336,12 @@ public class Mesh {
             Shader.BOUND.setDefaults();
 
             GL.bindVertexArray(vao);
-            GL.drawElements(drawMode.getGL(), indicesCount, GL_UNSIGNED_INT);
+            GL.drawElementsBaseVertex(drawMode.getGL(), indicesCount, GL_UNSIGNED_INT, indicesOffset, baseVertex);
+
+            if (!retained && vertexStream != null) {
+                vertexStream.fence();
+                indexStream.fence();
+            }
 
             // Cleanup opengl state and matrix stack
             GL.bindVertexArray(0);
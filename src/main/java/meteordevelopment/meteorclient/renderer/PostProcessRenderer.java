@@ -18,6 +18,7 @@ public class PostProcessRenderer {
     @PreInit
     public static void init() {
         mesh = new Mesh(DrawMode.Triangles, Mesh.Attrib.Vec2);
+        mesh.retained = true;
         mesh.begin();
 
         mesh.quad(
@@ -14,10 +14,18 @@ import net.minecraft.util.math.Box;
 public class Renderer3D {
     public final Mesh lines = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Lines, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
     public final Mesh triangles = new ShaderMesh(Shaders.POS_COLOR, DrawMode.Triangles, Mesh.Attrib.Vec3, Mesh.Attrib.Color);
+    public final InstancedBoxes boxes = new InstancedBoxes(this);
+
+    public void destroy() {
+        lines.destroy();
+        triangles.destroy();
+        boxes.destroy();
+    }
 
     public void begin() {
         lines.begin();
         triangles.begin();
+        boxes.begin();
     }
 
     public void end() {
@@ -28,6 +36,7 @@ public class Renderer3D {
     public void render(MatrixStack matrices) {
         lines.render(matrices);
         triangles.render(matrices);
+        boxes.render(matrices);
     }
 
     // Lines
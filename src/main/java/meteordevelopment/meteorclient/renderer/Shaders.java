@@ -11,6 +11,7 @@ public class Shaders {
     public static Shader POS_COLOR;
     public static Shader POS_TEX_COLOR;
     public static Shader TEXT;
+    public static Shader BOX_INSTANCED;
 
     private Shaders() {
     }
@@ -20,5 +21,6 @@ public class Shaders {
         POS_COLOR = new Shader("pos_color.vert", "pos_color.frag");
         POS_TEX_COLOR = new Shader("pos_tex_color.vert", "pos_tex_color.frag");
         TEXT = new Shader("text.vert", "text.frag");
+        BOX_INSTANCED = new Shader("box_instanced.vert", "pos_color.frag");
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.renderer;
+
+import org.lwjgl.opengl.ARBBufferStorage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL32C.*;
+import static org.lwjgl.system.MemoryUtil.*;
+
+/**
+ * GPU buffer that is written to as a ring. When {@code GL_ARB_buffer_storage} is available the buffer is persistently
+ * mapped and every uploaded region is guarded by a fence until the GPU finished drawing from it, otherwise the buffer
+ * is orphaned every time the ring wraps around and regions are written with {@code glBufferSubData}. Either way the
+ * driver doesn't have to allocate new storage every frame.
+ */
+public class StreamBuffer {
+    private static final int FLAGS = GL_MAP_WRITE_BIT | ARBBufferStorage.GL_MAP_PERSISTENT_BIT | ARBBufferStorage.GL_MAP_COHERENT_BIT;
+
+    private final int target;
+    private final boolean persistent;
+
+    private int id;
+    private long capacity;
+    private long mapped;
+
+    private long head;
+    private long lastStart, lastEnd;
+
+    private final List<Fence> fences = new ArrayList<>();
+
+    public StreamBuffer(int target, long capacity) {
+        this.target = target;
+        this.persistent = GL.supportsBufferStorage();
+
+        create(capacity);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Copies the data into the ring.
+     * @return offset of the data inside the buffer in bytes, a multiple of the alignment
+     */
+    public long upload(long address, long size, int alignment) {
+        // Keep at least three uploads worth of space so the GPU can lag behind by a couple of frames
+        if (size * 3 > capacity) {
+            long newCapacity = capacity;
+            while (size * 3 > newCapacity) newCapacity *= 2;
+
+            destroy();
+            create(newCapacity);
+        }
+
+        long start = (head + alignment - 1) / alignment * alignment;
+
+        if (start + size > capacity) {
+            start = 0;
+            if (!persistent) orphan();
+        }
+
+        long end = start + size;
+
+        if (persistent) {
+            waitFences(start, end);
+            memCopy(address, mapped + start, size);
+        }
+        else {
+            bind(id);
+            GL.bufferSubData(target, start, memByteBuffer(address, (int) size));
+            bind(0);
+        }
+
+        head = end;
+        lastStart = start;
+        lastEnd = end;
+
+        return start;
+    }
+
+    /** Must be called after the last draw call that reads the most recently uploaded data. */
+    public void fence() {
+        if (!persistent) return;
+
+        // A newer fence on the same region supersedes the older ones, meshes drawn multiple times would pile them up otherwise
+        for (Iterator<Fence> it = fences.iterator(); it.hasNext(); ) {
+            Fence fence = it.next();
+
+            if (fence.start == lastStart && fence.end == lastEnd) {
+                GL.deleteSync(fence.sync);
+                it.remove();
+            }
+        }
+
+        fences.add(new Fence(GL.fenceSync(), lastStart, lastEnd));
+    }
+
+    public void destroy() {
+        for (Fence fence : fences) GL.deleteSync(fence.sync);
+        fences.clear();
+
+        // Deleting a buffer also unmaps it
+        GL.deleteBuffer(id);
+        id = 0;
+        mapped = 0;
+    }
+
+    private void create(long capacity) {
+        this.capacity = capacity;
+        this.head = 0;
+
+        id = GL.genBuffer();
+        bind(id);
+
+        if (persistent) {
+            GL.bufferStorage(target, capacity, FLAGS);
+            mapped = memAddress(GL.mapBufferRange(target, 0, capacity, FLAGS));
+        }
+        else {
+            glBufferData(target, capacity, GL_STREAM_DRAW);
+        }
+
+        bind(0);
+    }
+
+    private void orphan() {
+        bind(id);
+        glBufferData(target, capacity, GL_STREAM_DRAW);
+        bind(0);
+    }
+
+    private void waitFences(long start, long end) {
+        for (Iterator<Fence> it = fences.iterator(); it.hasNext(); ) {
+            Fence fence = it.next();
+
+            if (fence.start < end && fence.end > start) {
+                GL.waitSync(fence.sync);
+                GL.deleteSync(fence.sync);
+                it.remove();
+            }
+        }
+    }
+
+    private void bind(int id) {
+        if (target == GL_ELEMENT_ARRAY_BUFFER) GL.bindIndexBuffer(id);
+        else GL.bindVertexBuffer(id);
+    }
+
+    private record Fence(long sync, long start, long end) {}
+}
@@ -5,7 +5,6 @@
 
 package meteordevelopment.meteorclient.renderer.text;
 
-import meteordevelopment.meteorclient.renderer.*;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import net.minecraft.client.util.math.MatrixStack;
@@ -16,8 +15,6 @@ import java.nio.ByteBuffer;
 public class CustomTextRenderer implements TextRenderer {
     public static final Color SHADOW_COLOR = new Color(60, 60, 60, 180);
 
-    private final Mesh mesh = new ShaderMesh(Shaders.TEXT, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
-
     public final FontFace fontFace;
 
     private final Font[] fonts;
@@ -42,15 +39,13 @@ public class CustomTextRenderer implements TextRenderer {
 
     @Override
     public void setAlpha(double a) {
-        mesh.alpha = a;
+        for (Font font : fonts) font.setAlpha(a);
     }
 
     @Override
     public void begin(double scale, boolean scaleOnly, boolean big) {
         if (building) throw new RuntimeException("CustomTextRenderer.begin() called twice");
 
-        if (!scaleOnly) mesh.begin();
-
         if (big) {
             this.font = fonts[fonts.length - 1];
         }
@@ -67,6 +62,8 @@ public class CustomTextRenderer implements TextRenderer {
             font = fonts[scaleI - 1];
         }
 
+        if (!scaleOnly) font.begin();
+
         this.building = true;
         this.scaleOnly = scaleOnly;
 
@@ -98,13 +95,13 @@ public class CustomTextRenderer implements TextRenderer {
             int preShadowA = SHADOW_COLOR.a;
             SHADOW_COLOR.a = (int) (color.a / 255.0 * preShadowA);
 
-            width = font.render(mesh, text, x + fontScale * scale / 1.5, y + fontScale * scale / 1.5, SHADOW_COLOR, scale / 1.5);
-            font.render(mesh, text, x, y, color, scale / 1.5);
+            width = font.render(text, x + fontScale * scale / 1.5, y + fontScale * scale / 1.5, SHADOW_COLOR, scale / 1.5, true);
+            font.render(text, x, y, color, scale / 1.5);
 
             SHADOW_COLOR.a = preShadowA;
         }
         else {
-            width = font.render(mesh, text, x, y, color, scale / 1.5);
+            width = font.render(text, x, y, color, scale / 1.5);
         }
 
         if (!wasBuilding) end();
@@ -120,18 +117,13 @@ public class CustomTextRenderer implements TextRenderer {
     public void end(MatrixStack matrices) {
         if (!building) throw new RuntimeException("CustomTextRenderer.end() called without calling begin()");
 
-        if (!scaleOnly) {
-            mesh.end();
-
-            GL.bindTexture(font.texture.getGlId());
-            mesh.render(matrices);
-        }
+        if (!scaleOnly) font.render(matrices);
 
         building = false;
         scale = 1;
     }
 
     public void destroy() {
-        mesh.destroy();
+        for (Font font : fonts) font.destroy();
     }
 }
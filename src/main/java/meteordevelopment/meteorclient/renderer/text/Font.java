@@ -5,64 +5,69 @@
 
 package meteordevelopment.meteorclient.renderer.text;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import meteordevelopment.meteorclient.renderer.DrawMode;
+import meteordevelopment.meteorclient.renderer.GL;
 import meteordevelopment.meteorclient.renderer.Mesh;
+import meteordevelopment.meteorclient.renderer.ShaderMesh;
+import meteordevelopment.meteorclient.renderer.Shaders;
+import meteordevelopment.meteorclient.systems.config.Config;
 import meteordevelopment.meteorclient.utils.render.ByteTexture;
 import meteordevelopment.meteorclient.utils.render.color.Color;
-import net.minecraft.client.texture.AbstractTexture;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.MathHelper;
 import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.*;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackContext;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.stb.STBTruetype;
 import org.lwjgl.system.MemoryStack;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Glyphs are rasterized the first time they are used and packed into atlas pages, a new page is added when the current
+ * one is full. Pages of all fonts share a memory budget, the least recently used ones are dropped when it is exceeded
+ * and their glyphs are rasterized again when needed.
+ * <p>
+ * Text is rendered between {@link #begin()} and {@link #render(MatrixStack)}, every page gets its own meshes. Shadows
+ * of all pages are drawn before any text, so a shadow never covers text that uses a different page. Glyphs and pages
+ * are only touched on the render thread, {@link #getWidth(String, int)} falls back to the font metrics elsewhere.
+ */
 public class Font {
-    public AbstractTexture texture;
+    // Only accessed on the render thread
+    private static final List<Page> PAGES = new ArrayList<>();
+    private static long allocated;
+    private static long clock;
+
+    private final ByteBuffer buffer;
+    private final STBTTFontinfo fontInfo;
     private final int height;
     private final float scale;
     private final float ascent;
-    private final Int2ObjectOpenHashMap<CharData> charMap = new Int2ObjectOpenHashMap<>();
-    private static final int size = 2048;
+    private final int pageSize;
+
+    private final Int2ObjectOpenHashMap<Glyph> glyphs = new Int2ObjectOpenHashMap<>();
+    private final List<Page> pages = new ArrayList<>();
+    private Page openPage;
+
+    private boolean building;
+    private int batch;
+    private double alpha = 1;
 
     public Font(ByteBuffer buffer, int height) {
+        this.buffer = buffer;
         this.height = height;
 
         // Initialize font
-        STBTTFontinfo fontInfo = STBTTFontinfo.create();
+        fontInfo = STBTTFontinfo.create();
         STBTruetype.stbtt_InitFont(fontInfo, buffer);
 
-        // Allocate buffers
-        ByteBuffer bitmap = BufferUtils.createByteBuffer(size * size);
-        STBTTPackedchar.Buffer[] cdata = {
-            STBTTPackedchar.create(95), // Basic Latin
-            STBTTPackedchar.create(96), // Latin 1 Supplement
-            STBTTPackedchar.create(128), // Latin Extended-A
-            STBTTPackedchar.create(144), // Greek and Coptic
-            STBTTPackedchar.create(256), // Cyrillic
-            STBTTPackedchar.create(1) // infinity symbol
-        };
-
-        // create and initialise packing context
-        STBTTPackContext packContext = STBTTPackContext.create();
-        STBTruetype.stbtt_PackBegin(packContext, bitmap, size, size, 0 ,1);
-
-        // create the pack range, populate with the specific packing ranges
-        STBTTPackRange.Buffer packRange = STBTTPackRange.create(cdata.length);
-        packRange.put(STBTTPackRange.create().set(height, 32, null, 95, cdata[0], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 160, null, 96, cdata[1], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 256, null, 128, cdata[2], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 880, null, 144, cdata[3], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 1024, null, 256, cdata[4], (byte) 2, (byte) 2));
-        packRange.put(STBTTPackRange.create().set(height, 8734, null, 1, cdata[5], (byte) 2, (byte) 2)); // lol
-        packRange.flip();
-
-        // write and finish
-        STBTruetype.stbtt_PackFontRanges(packContext, buffer, 0, packRange);
-        STBTruetype.stbtt_PackEnd(packContext);
-
-        // Create texture object and get font scale
-        texture = new ByteTexture(size, size, bitmap, ByteTexture.Format.A, ByteTexture.Filter.Linear, ByteTexture.Filter.Linear);
         scale = STBTruetype.stbtt_ScaleForPixelHeight(fontInfo, height);
 
         // Get font vertical ascent
@@ -72,40 +77,24 @@ public class Font {
             this.ascent = ascent.get(0);
         }
 
-        for (int i = 0; i < cdata.length; i++) {
-            STBTTPackedchar.Buffer cbuf = cdata[i];
-            int offset = packRange.get(i).first_unicode_codepoint_in_range();
-
-            for (int j = 0; j < cbuf.capacity(); j++) {
-                STBTTPackedchar packedChar = cbuf.get(j);
-
-                float ipw = 1f / size; // pixel width and height
-                float iph = 1f / size;
-
-                charMap.put(j + offset, new CharData(
-                    packedChar.xoff(),
-                    packedChar.yoff(),
-                    packedChar.xoff2(),
-                    packedChar.yoff2(),
-                    packedChar.x0() * ipw,
-                    packedChar.y0() * iph,
-                    packedChar.x1() * ipw,
-                    packedChar.y1() * iph,
-                    packedChar.xadvance()
-                ));
-            }
-        }
+        // Glyphs are oversampled 2x2 and take about 2.4 * height * height pixels, this leaves room for at least 240 of
+        // them so the common glyphs share one page
+        pageSize = MathHelper.clamp(MathHelper.smallestEncompassingPowerOfTwo(height * 24), 256, 2048);
     }
 
     public double getWidth(String string, int length) {
+        boolean renderThread = RenderSystem.isOnRenderThread();
         double width = 0;
 
-        for (int i = 0; i < length; i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
+        for (int i = 0; i < length; ) {
+            int cp = string.codePointAt(i);
+            i += Character.charCount(cp);
 
-            width += c.xAdvance;
+            if (renderThread) {
+                Glyph glyph = getGlyph(cp);
+                if (glyph != null) width += glyph.xAdvance;
+            }
+            else width += getAdvance(cp);
         }
 
         return width;
@@ -115,20 +104,51 @@ public class Font {
         return height;
     }
 
-    public double render(Mesh mesh, String string, double x, double y, Color color, double scale) {
+    public void setAlpha(double alpha) {
+        this.alpha = alpha;
+
+        for (Page page : pages) {
+            if (page.mesh != null) page.mesh.alpha = alpha;
+            if (page.shadowMesh != null) page.shadowMesh.alpha = alpha;
+        }
+    }
+
+    public void begin() {
+        if (building) throw new IllegalStateException("Font.begin() called while already building.");
+
+        building = true;
+        batch++;
+    }
+
+    public boolean isBuilding() {
+        return building;
+    }
+
+    public double render(String string, double x, double y, Color color, double scale) {
+        return render(string, x, y, color, scale, false);
+    }
+
+    /** Shadows are drawn below all text of the batch. */
+    public double render(String string, double x, double y, Color color, double scale, boolean shadow) {
         y += ascent * this.scale * scale;
 
-        for (int i = 0; i < string.length(); i++) {
-            int cp = string.charAt(i);
-            CharData c = charMap.get(cp);
-            if (c == null) c = charMap.get(32);
+        for (int i = 0; i < string.length(); ) {
+            int cp = string.codePointAt(i);
+            i += Character.charCount(cp);
+
+            Glyph c = getGlyph(cp);
+            if (c == null) continue;
 
-            mesh.quad(
-                mesh.vec2(x + c.x0 * scale, y + c.y0 * scale).vec2(c.u0, c.v0).color(color).next(),
-                mesh.vec2(x + c.x0 * scale, y + c.y1 * scale).vec2(c.u0, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y1 * scale).vec2(c.u1, c.v1).color(color).next(),
-                mesh.vec2(x + c.x1 * scale, y + c.y0 * scale).vec2(c.u1, c.v0).color(color).next()
-            );
+            if (c.x0 != c.x1) {
+                Mesh mesh = c.page.mesh(shadow);
+
+                mesh.quad(
+                    mesh.vec2(x + c.x0 * scale, y + c.y0 * scale).vec2(c.u0, c.v0).color(color).next(),
+                    mesh.vec2(x + c.x0 * scale, y + c.y1 * scale).vec2(c.u0, c.v1).color(color).next(),
+                    mesh.vec2(x + c.x1 * scale, y + c.y1 * scale).vec2(c.u1, c.v1).color(color).next(),
+                    mesh.vec2(x + c.x1 * scale, y + c.y0 * scale).vec2(c.u1, c.v0).color(color).next()
+                );
+            }
 
             x += c.xAdvance * scale;
         }
@@ -136,5 +156,233 @@ public class Font {
         return x;
     }
 
-    private record CharData(float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {}
+    public void render(MatrixStack matrices) {
+        if (!building) throw new IllegalStateException("Font.render() called without calling begin().");
+
+        for (Page page : pages) {
+            if (page.batch == batch) page.upload();
+        }
+
+        for (Page page : pages) {
+            if (page.batch == batch) page.render(page.shadowMesh, matrices);
+        }
+
+        for (Page page : pages) {
+            if (page.batch == batch) page.render(page.mesh, matrices);
+        }
+
+        building = false;
+        trim(0);
+    }
+
+    public void destroy() {
+        for (Page page : new ArrayList<>(pages)) page.evict();
+    }
+
+    // Glyphs
+
+    private float getAdvance(int cp) {
+        if (cp != ' ' && STBTruetype.stbtt_FindGlyphIndex(fontInfo, cp) == 0) cp = ' ';
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advance = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointHMetrics(fontInfo, cp, advance, null);
+            return advance.get(0) * scale;
+        }
+    }
+
+    private Glyph getGlyph(int cp) {
+        Glyph glyph = glyphs.get(cp);
+        if (glyph != null) {
+            glyph.page.lastUsed = ++clock;
+            return glyph;
+        }
+
+        if (cp == ' ' || STBTruetype.stbtt_FindGlyphIndex(fontInfo, cp) != 0) glyph = rasterize(cp);
+
+        // Codepoints missing from the font or too big for a page fall back to a space
+        if (glyph == null && cp != ' ') glyph = getGlyph(' ');
+        if (glyph == null) return null;
+
+        glyphs.put(cp, glyph);
+        glyph.page.codepoints.add(cp);
+
+        return glyph;
+    }
+
+    private Glyph rasterize(int cp) {
+        if (openPage != null) {
+            Glyph glyph = openPage.pack(cp);
+            if (glyph != null) return glyph;
+
+            openPage.seal();
+        }
+
+        openPage = new Page();
+
+        // Nothing else will fit on an empty page either
+        Glyph glyph = openPage.pack(cp);
+        if (glyph == null) openPage.evict();
+
+        return glyph;
+    }
+
+    // Budget
+
+    private static void trim(long required) {
+        Config config = Config.get();
+        long budget = (config != null ? config.glyphCacheSize.get() : 16) * 1024L * 1024L;
+
+        while (allocated + required > budget) {
+            Page oldest = null;
+
+            for (Page page : PAGES) {
+                // Pages that have text waiting to be rendered can't go away
+                if (page.isBuilding()) continue;
+                if (oldest == null || page.lastUsed < oldest.lastUsed) oldest = page;
+            }
+
+            if (oldest == null) break;
+            oldest.evict();
+        }
+    }
+
+    private class Page {
+        private final ByteTexture texture;
+        private final IntArrayList codepoints = new IntArrayList();
+
+        private ByteBuffer bitmap;
+        private STBTTPackContext packContext;
+        private int dirtyMinY = Integer.MAX_VALUE, dirtyMaxY = -1;
+
+        private Mesh mesh, shadowMesh;
+        private int batch = -1;
+        private long lastUsed;
+
+        public Page() {
+            trim((long) pageSize * pageSize);
+
+            bitmap = BufferUtils.createByteBuffer(pageSize * pageSize);
+            texture = new ByteTexture(pageSize, pageSize, bitmap, ByteTexture.Format.A, ByteTexture.Filter.Linear, ByteTexture.Filter.Linear);
+
+            packContext = STBTTPackContext.create();
+            STBTruetype.stbtt_PackBegin(packContext, bitmap, pageSize, pageSize, 0, 1);
+            STBTruetype.stbtt_PackSetOversampling(packContext, 2, 2);
+
+            pages.add(this);
+            PAGES.add(this);
+            allocated += (long) pageSize * pageSize;
+            lastUsed = ++clock;
+        }
+
+        public Glyph pack(int cp) {
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                STBTTPackedchar.Buffer packedChars = STBTTPackedchar.calloc(1, stack);
+                if (!STBTruetype.stbtt_PackFontRange(packContext, buffer, 0, height, cp, packedChars)) return null;
+
+                STBTTPackedchar packedChar = packedChars.get(0);
+
+                int y0 = packedChar.y0() & 0xFFFF;
+                int y1 = packedChar.y1() & 0xFFFF;
+                dirtyMinY = Math.min(dirtyMinY, Math.max(y0 - 1, 0));
+                dirtyMaxY = Math.max(dirtyMaxY, Math.min(y1 + 1, pageSize));
+
+                float ipw = 1f / pageSize; // pixel width and height
+                float iph = 1f / pageSize;
+
+                lastUsed = ++clock;
+
+                return new Glyph(
+                    this,
+                    packedChar.xoff(),
+                    packedChar.yoff(),
+                    packedChar.xoff2(),
+                    packedChar.yoff2(),
+                    (packedChar.x0() & 0xFFFF) * ipw,
+                    y0 * iph,
+                    (packedChar.x1() & 0xFFFF) * ipw,
+                    y1 * iph,
+                    packedChar.xadvance()
+                );
+            }
+        }
+
+        /** Called once the page is full, uploads what is left and drops the memory only needed for packing. */
+        public void seal() {
+            if (packContext == null) return;
+
+            upload();
+
+            STBTruetype.stbtt_PackEnd(packContext);
+            packContext = null;
+            bitmap = null;
+
+            if (openPage == this) openPage = null;
+        }
+
+        public Mesh mesh(boolean shadow) {
+            if (batch != Font.this.batch) {
+                batch = Font.this.batch;
+
+                if (mesh != null) mesh.begin();
+                if (shadowMesh != null) shadowMesh.begin();
+            }
+
+            if (shadow) {
+                if (shadowMesh == null) shadowMesh = createMesh();
+                return shadowMesh;
+            }
+
+            if (mesh == null) mesh = createMesh();
+            return mesh;
+        }
+
+        private Mesh createMesh() {
+            Mesh mesh = new ShaderMesh(Shaders.TEXT, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
+            mesh.alpha = alpha;
+            mesh.begin();
+            return mesh;
+        }
+
+        public boolean isBuilding() {
+            return (mesh != null && mesh.isBuilding()) || (shadowMesh != null && shadowMesh.isBuilding());
+        }
+
+        public void render(Mesh mesh, MatrixStack matrices) {
+            if (mesh == null || !mesh.isBuilding()) return;
+
+            GL.bindTexture(texture.getGlId());
+            mesh.render(matrices);
+        }
+
+        public void upload() {
+            if (dirtyMaxY <= dirtyMinY || bitmap == null) return;
+
+            texture.update(0, dirtyMinY, pageSize, dirtyMaxY - dirtyMinY, bitmap.slice(dirtyMinY * pageSize, (dirtyMaxY - dirtyMinY) * pageSize), ByteTexture.Format.A);
+
+            dirtyMinY = Integer.MAX_VALUE;
+            dirtyMaxY = -1;
+        }
+
+        public void evict() {
+            seal();
+
+            for (int i = 0; i < codepoints.size(); i++) {
+                int cp = codepoints.getInt(i);
+
+                Glyph glyph = glyphs.get(cp);
+                if (glyph != null && glyph.page == this) glyphs.remove(cp);
+            }
+
+            texture.clearGlId();
+            if (mesh != null) mesh.destroy();
+            if (shadowMesh != null) shadowMesh.destroy();
+
+            pages.remove(this);
+            PAGES.remove(this);
+            allocated -= (long) pageSize * pageSize;
+        }
+    }
+
+    private record Glyph(Page page, float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, float xAdvance) {}
 }
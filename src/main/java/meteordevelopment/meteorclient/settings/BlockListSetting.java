@@ -5,6 +5,7 @@
 
 package meteordevelopment.meteorclient.settings;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.block.Block;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
@@ -16,16 +17,28 @@ import net.minecraft.util.Identifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public class BlockListSetting extends Setting<List<Block>> {
     public final Predicate<Block> filter;
 
+    // Immutable once published, replaced whenever the list changes so it can be read from any thread
+    private volatile Set<Block> lookup;
+
     public BlockListSetting(String name, String description, List<Block> defaultValue, Consumer<List<Block>> onChanged, Consumer<Setting<List<Block>>> onModuleActivated, Predicate<Block> filter, IVisible visible) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
 
         this.filter = filter;
+        updateLookup();
+    }
+
+    /**
+     * Constant time alternative to {@code get().contains(block)}, safe to call from render and worker threads.
+     */
+    public boolean contains(Block block) {
+        return lookup.contains(block);
     }
 
     @Override
@@ -33,6 +46,16 @@ public class BlockListSetting extends Setting<List<Block>> {
         value = new ArrayList<>(defaultValue);
     }
 
+    @Override
+    public void onChanged() {
+        updateLookup();
+        super.onChanged();
+    }
+
+    private void updateLookup() {
+        lookup = new ReferenceOpenHashSet<>(get());
+    }
+
     @Override
     protected List<Block> parseImpl(String str) {
         String[] values = str.split(",");
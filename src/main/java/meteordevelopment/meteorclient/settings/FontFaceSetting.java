@@ -15,6 +15,8 @@ import java.util.List;
 import java.util.function.Consumer;
 
 public class FontFaceSetting extends Setting<FontFace> {
+    private FontInfo pending;
+
     public FontFaceSetting(String name, String description, FontFace defaultValue, Consumer<FontFace> onChanged, Consumer<Setting<FontFace>> onModuleActivated, IVisible visible) {
         super(name, description, defaultValue, onChanged, onModuleActivated, visible);
     }
@@ -55,10 +57,30 @@ public class FontFaceSetting extends Setting<FontFace> {
         return false;
     }
 
+    @Override
+    public boolean set(FontFace value) {
+        pending = null;
+        return super.set(value);
+    }
+
+    /** Applies a saved font that wasn't available yet when the setting was loaded because system fonts were still being indexed. */
+    public void resolvePending() {
+        if (pending == null) return;
+
+        FontFamily family = Fonts.getFamily(pending.family());
+        FontFace fontFace = family != null ? family.get(pending.type()) : null;
+
+        if (fontFace != null) set(fontFace);
+        pending = null;
+    }
+
     @Override
     protected NbtCompound save(NbtCompound tag) {
-        tag.putString("family", get().info.family());
-        tag.putString("type", get().info.type().toString());
+        // Don't overwrite the saved font with the fallback before it had a chance to load
+        FontInfo info = pending != null ? pending : get().info;
+
+        tag.putString("family", info.family());
+        tag.putString("type", info.type().toString());
         return tag;
     }
 
@@ -82,7 +104,10 @@ public class FontFaceSetting extends Setting<FontFace> {
                 changed = true;
             }
         }
-        if (!changed) set(Fonts.DEFAULT_FONT);
+        if (!changed) {
+            set(Fonts.DEFAULT_FONT);
+            if (Fonts.isLoading()) pending = new FontInfo(family, type);
+        }
 
         return get();
     }
@@ -15,15 +15,29 @@ import org.apache.commons.io.FilenameUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 public abstract class System<T> implements ISerializable<T> {
     private final String name;
     private File file;
 
     protected boolean isFirstInit;
+
+    // Last state saved to or loaded from the default folder, only accessed by the thread saving and loading
+    private File savedFile;
+    private NbtCompound savedTag;
+    private volatile boolean dirty;
+
+    // Generation of the last snapshot written to each file, also used as the write lock
+    private final Map<File, Long> written = new HashMap<>();
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss", Locale.ROOT);
 
     public System(String name) {
@@ -38,28 +52,69 @@ public abstract class System<T> implements ISerializable<T> {
     public void init() {}
 
     public void save(File folder) {
+        Runnable write = prepareSave(folder, true);
+        if (write != null) write.run();
+    }
+
+    public void save() {
+        save(null);
+    }
+
+    /** Forces the next {@link Systems#save()} to write this system even if its serialized state didn't change. */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Serializes the system on the calling thread and returns the task that writes it, which can run on any thread.
+     * Unless forced, saving to the default folder returns null when nothing changed since the last save or load.
+     */
+    Runnable prepareSave(File folder, boolean force) {
         File file = getFile();
-        if (file == null) return;
+        if (file == null) return null;
+        if (folder != null) file = new File(folder, file.getName());
 
         NbtCompound tag = toTag();
-        if (tag == null) return;
+        if (tag == null) return null;
 
-        try {
-            File tempFile = File.createTempFile(MeteorClient.MOD_ID, file.getName());
-            NbtIo.write(tag, tempFile.toPath());
+        if (folder == null) {
+            if (!force && !dirty && file.equals(savedFile) && tag.equals(savedTag)) return null;
 
-            if (folder != null) file = new File(folder, file.getName());
-
-            file.getParentFile().mkdirs();
-            StreamUtils.copy(tempFile, file);
-            tempFile.delete();
-        } catch (IOException e) {
-            e.printStackTrace();
+            savedFile = file;
+            savedTag = tag;
+            dirty = false;
         }
+
+        File target = file;
+        long generation = Systems.nextGeneration();
+
+        return () -> write(target, tag, generation);
     }
 
-    public void save() {
-        save(null);
+    private void write(File file, NbtCompound tag, long generation) {
+        synchronized (written) {
+            // A newer snapshot of this system was already written
+            if (generation < written.getOrDefault(file, -1L)) return;
+
+            try {
+                Path target = file.toPath();
+                Files.createDirectories(target.getParent());
+
+                Path temp = target.resolveSibling(file.getName() + ".tmp");
+                NbtIo.write(tag, temp);
+
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                written.put(file, generation);
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to save {}.", name, e);
+                markDirty();
+            }
+        }
     }
 
     public void load(File folder) {
@@ -71,7 +126,13 @@ public abstract class System<T> implements ISerializable<T> {
 
             if (file.exists()) {
                 try {
-                    fromTag(NbtIo.read(file.toPath()));
+                    NbtCompound tag = NbtIo.read(file.toPath());
+                    fromTag(tag);
+
+                    if (folder == null) {
+                        savedFile = file;
+                        savedTag = tag;
+                    }
                 } catch (CrashException e) {
                     String backupName = FilenameUtils.removeExtension(file.getName()) + "-" + ZonedDateTime.now().format(DATE_TIME_FORMATTER) + ".backup.nbt";
                     File backup = new File(file.getParentFile(), backupName);
@@ -19,17 +19,37 @@ import meteordevelopment.meteorclient.systems.proxies.Proxies;
 import meteordevelopment.meteorclient.systems.mcacapi.UwUAPISystem;
 import meteordevelopment.meteorclient.systems.waypoints.Waypoints;
 import meteordevelopment.orbit.EventHandler;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Systems {
     @SuppressWarnings("rawtypes")
     private static final Map<Class<? extends System>, System<?>> systems = new Reference2ReferenceOpenHashMap<>();
     private static final List<Runnable> preLoadTasks = new ArrayList<>(1);
 
+    private static final ExecutorService IO = Executors.newFixedThreadPool(Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4), new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(@NotNull Runnable task) {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.setName("Meteor-Systems-IO-" + threadNumber.getAndIncrement());
+            return thread;
+        }
+    });
+
+    private static final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong generation = new AtomicLong();
+
     public static void addPreLoadTask(Runnable task) {
         preLoadTasks.add(task);
     }
@@ -71,20 +91,51 @@ public class Systems {
         save();
     }
 
+    /**
+     * Serializes every system that changed since it was last saved on the calling thread and writes them in parallel in
+     * the background. Use {@link #flush()} to wait for the writes to finish.
+     */
     public static void save(File folder) {
         long start = java.lang.System.currentTimeMillis();
-        MeteorClient.LOG.info("Saving");
 
-        for (System<?> system : systems.values()) system.save(folder);
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        for (System<?> system : systems.values()) {
+            Runnable write = system.prepareSave(folder, folder != null);
+            if (write != null) writes.add(CompletableFuture.runAsync(write, IO));
+        }
+
+        if (writes.isEmpty()) return;
+        MeteorClient.LOG.info("Saving {} systems", writes.size());
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new));
+        pending.add(all);
 
-        MeteorClient.LOG.info("Saved in {} milliseconds.", java.lang.System.currentTimeMillis() - start);
+        all.whenComplete((unused, throwable) -> {
+            pending.remove(all);
+            MeteorClient.LOG.info("Saved in {} milliseconds.", java.lang.System.currentTimeMillis() - start);
+        });
     }
 
     public static void save() {
         save(null);
     }
 
+    /** Blocks until all writes started by {@link #save(File)} are done. */
+    public static void flush() {
+        for (CompletableFuture<Void> future : pending) {
+            future.join();
+        }
+    }
+
+    static long nextGeneration() {
+        return generation.incrementAndGet();
+    }
+
     public static void load(File folder) {
+        // Don't read files that are still being written
+        flush();
+
         long start = java.lang.System.currentTimeMillis();
         MeteorClient.LOG.info("Loading");
 
@@ -6,24 +6,36 @@
 package meteordevelopment.meteorclient.systems.accounts;
 
 import com.mojang.util.UndashedUuid;
+import meteordevelopment.meteorclient.gui.screens.accounts.AccountsScreen;
 import meteordevelopment.meteorclient.utils.misc.ISerializable;
 import meteordevelopment.meteorclient.utils.misc.NbtException;
 import meteordevelopment.meteorclient.utils.render.PlayerHeadTexture;
 import meteordevelopment.meteorclient.utils.render.PlayerHeadUtils;
 import net.minecraft.nbt.NbtCompound;
 
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
 public class AccountCache implements ISerializable<AccountCache> {
     public String username = "";
     public String uuid = "";
-    private PlayerHeadTexture headTexture;
+    private volatile PlayerHeadTexture headTexture;
 
     public PlayerHeadTexture getHeadTexture() {
         return headTexture != null ? headTexture : PlayerHeadUtils.STEVE_HEAD;
     }
 
+    /** Loads the head in the background, an open accounts screen is reloaded once it is available. */
     public void loadHead() {
         if (uuid == null || uuid.isBlank()) return;
-        headTexture = PlayerHeadUtils.fetchHead(UndashedUuid.fromStringLenient(uuid));
+
+        PlayerHeadUtils.fetchHeadAsync(UndashedUuid.fromStringLenient(uuid)).thenAccept(texture -> {
+            if (texture == null) return;
+            headTexture = texture;
+
+            mc.execute(() -> {
+                if (mc.currentScreen instanceof AccountsScreen screen) screen.reload();
+            });
+        });
     }
 
     @Override
@@ -7,7 +7,6 @@ package meteordevelopment.meteorclient.systems.config;
 
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.renderer.Fonts;
-import meteordevelopment.meteorclient.renderer.text.FontFace;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.Systems;
@@ -38,7 +37,7 @@ public class Config extends System<Config> {
         .build()
     );
 
-    public final Setting<FontFace> font = sgVisual.add(new FontFaceSetting.Builder()
+    public final FontFaceSetting font = sgVisual.add(new FontFaceSetting.Builder()
         .name("font")
         .description("Custom font to use.")
         .visible(customFont::get)
@@ -46,6 +45,15 @@ public class Config extends System<Config> {
         .build()
     );
 
+    public final Setting<Integer> glyphCacheSize = sgVisual.add(new IntSetting.Builder()
+        .name("glyph-cache-size")
+        .description("Memory in megabytes custom fonts can use for rendered glyphs before rarely used ones are dropped.")
+        .defaultValue(16)
+        .min(1).sliderRange(4, 64)
+        .visible(customFont::get)
+        .build()
+    );
+
     public final Setting<Double> rainbowSpeed = sgVisual.add(new DoubleSetting.Builder()
         .name("rainbow-speed")
         .description("The global rainbow speed.")
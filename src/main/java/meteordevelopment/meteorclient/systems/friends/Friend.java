@@ -18,6 +18,8 @@ import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.UUID;
 
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
 public class Friend implements ISerializable<Friend>, Comparable<Friend> {
     public volatile String name;
     private volatile @Nullable UUID id;
@@ -41,6 +43,10 @@ public class Friend implements ISerializable<Friend>, Comparable<Friend> {
         return name;
     }
 
+    public @Nullable UUID getId() {
+        return id;
+    }
+
     public PlayerHeadTexture getHead() {
         return headTexture != null ? headTexture : PlayerHeadUtils.STEVE_HEAD;
     }
@@ -51,8 +57,13 @@ public class Friend implements ISerializable<Friend>, Comparable<Friend> {
         if (res == null || res.name == null || res.id == null) return;
         name = res.name;
         id = UndashedUuid.fromStringLenient(res.id);
-        headTexture = PlayerHeadUtils.fetchHead(id);
-        updating = false;
+
+        PlayerHeadUtils.fetchHeadAsync(id)
+            .thenAccept(texture -> headTexture = texture)
+            .whenComplete((v, e) -> updating = false);
+
+        // The name casing or the UUID might have changed
+        mc.execute(() -> Friends.get().reindex());
     }
 
     public boolean headTextureNeedsUpdate() {
@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.friends;
 
 import com.mojang.util.UndashedUuid;
+import meteordevelopment.meteorclient.mixininterface.IPlayerEntity;
 import meteordevelopment.meteorclient.systems.System;
 import meteordevelopment.meteorclient.systems.Systems;
 import meteordevelopment.meteorclient.utils.misc.NbtUtils;
@@ -16,14 +17,16 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 
 public class Friends extends System<Friends> implements Iterable<Friend> {
     private final List<Friend> friends = new ArrayList<>();
 
+    // Indexes over the list, names are lower cased
+    private final Map<UUID, Friend> byId = new HashMap<>();
+    private final Map<String, Friend> byName = new HashMap<>();
+    private int version;
+
     public Friends() {
         super("friends");
     }
@@ -37,6 +40,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
 
         if (!friends.contains(friend)) {
             friends.add(friend);
+            index(friend);
             save();
 
             return true;
@@ -47,6 +51,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
 
     public boolean remove(Friend friend) {
         if (friends.remove(friend)) {
+            reindex();
             save();
             return true;
         }
@@ -55,25 +60,26 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
     }
 
     public Friend get(String name) {
-        for (Friend friend : friends) {
-            if (friend.name.equalsIgnoreCase(name)) {
-                return friend;
-            }
-        }
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
 
-        return null;
+    public Friend get(UUID id) {
+        return byId.get(id);
     }
 
     public Friend get(PlayerEntity player) {
-        return get(player.getName().getString());
+        // Offline mode servers use different UUIDs than the ones Mojang returned, so fall back to the name
+        Friend friend = byId.get(player.getUuid());
+        return friend != null ? friend : get(player.getName().getString());
     }
 
     public Friend get(PlayerListEntry player) {
-        return get(player.getProfile().getName());
+        Friend friend = byId.get(player.getProfile().getId());
+        return friend != null ? friend : get(player.getProfile().getName());
     }
 
     public boolean isFriend(PlayerEntity player) {
-        return player != null && get(player) != null;
+        return player != null && ((IPlayerEntity) player).meteor$isFriend();
     }
 
     public boolean isFriend(PlayerListEntry player) {
@@ -84,6 +90,29 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
         return !isFriend(player);
     }
 
+    /** Changes every time the friend list or the name or UUID of a friend changes. */
+    public int getVersion() {
+        return version;
+    }
+
+    /** Rebuilds the indexes, needs to be called on the main thread after a friend's name or UUID changed. */
+    public void reindex() {
+        byId.clear();
+        byName.clear();
+        version++;
+
+        for (Friend friend : friends) index(friend);
+    }
+
+    private void index(Friend friend) {
+        byName.putIfAbsent(friend.name.toLowerCase(Locale.ROOT), friend);
+
+        UUID id = friend.getId();
+        if (id != null) byId.putIfAbsent(id, friend);
+
+        version++;
+    }
+
     public int count() {
         return friends.size();
     }
@@ -109,6 +138,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
     @Override
     public Friends fromTag(NbtCompound tag) {
         friends.clear();
+        reindex();
 
         for (NbtElement itemTag : tag.getList("friends", 10)) {
             NbtCompound friendTag = (NbtCompound) itemTag;
@@ -123,6 +153,7 @@ public class Friends extends System<Friends> implements Iterable<Friend> {
                 : new Friend(name);
 
             friends.add(friend);
+            index(friend);
         }
 
         Collections.sort(friends);
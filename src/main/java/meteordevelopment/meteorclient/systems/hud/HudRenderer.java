@@ -78,8 +78,7 @@ public class HudRenderer {
                 FontHolder fontHolder = it.next();
 
                 if (fontHolder.visited) {
-                    GL.bindTexture(fontHolder.font.texture.getGlId());
-                    fontHolder.getMesh().render(null);
+                    fontHolder.font.render(null);
                 }
                 else {
                     it.remove();
@@ -132,10 +131,8 @@ public class HudRenderer {
             return VanillaTextRenderer.INSTANCE.render(text, x, y, color, shadow);
         }
 
-        FontHolder fontHolder = getFontHolder(scale, true);
-
-        Font font = fontHolder.font;
-        Mesh mesh = fontHolder.getMesh();
+        Font font = getFontHolder(scale, true).font;
+        if (!font.isBuilding()) font.begin();
 
         double width;
 
@@ -143,13 +140,13 @@ public class HudRenderer {
             int preShadowA = CustomTextRenderer.SHADOW_COLOR.a;
             CustomTextRenderer.SHADOW_COLOR.a = (int) (color.a / 255.0 * preShadowA);
 
-            width = font.render(mesh, text, x + 1, y + 1, CustomTextRenderer.SHADOW_COLOR, scale);
-            font.render(mesh, text, x, y, color, scale);
+            width = font.render(text, x + 1, y + 1, CustomTextRenderer.SHADOW_COLOR, scale, true);
+            font.render(text, x, y, color, scale);
 
             CustomTextRenderer.SHADOW_COLOR.a = preShadowA;
         }
         else {
-            width = font.render(mesh, text, x, y, color, scale);
+            width = font.render(text, x, y, color, scale);
         }
 
         return width;
@@ -261,21 +258,12 @@ public class HudRenderer {
         public final Font font;
         public boolean visited;
 
-        private Mesh mesh;
-
         public FontHolder(Font font) {
             this.font = font;
         }
 
-        public Mesh getMesh() {
-            if (mesh == null) mesh = new ShaderMesh(Shaders.TEXT, DrawMode.Triangles, Mesh.Attrib.Vec2, Mesh.Attrib.Vec2, Mesh.Attrib.Color);
-            if (!mesh.isBuilding()) mesh.begin();
-            return mesh;
-        }
-
         public void destroy() {
-            font.texture.clearGlId();
-            if (mesh != null) mesh.destroy();
+            font.destroy();
         }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.hud.elements;
+
+import meteordevelopment.meteorclient.settings.*;
+import meteordevelopment.meteorclient.systems.hud.*;
+import meteordevelopment.meteorclient.systems.modules.Module;
+import meteordevelopment.meteorclient.systems.modules.ModuleProfiler;
+import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class ProfilerHud extends HudElement {
+    public static final HudElementInfo<ProfilerHud> INFO = new HudElementInfo<>(Hud.GROUP, "profiler", "Displays the modules taking the most time while the profiler is running.", ProfilerHud::new);
+
+    private final SettingGroup sgGeneral = settings.getDefaultGroup();
+
+    private final Setting<Integer> count = sgGeneral.add(new IntSetting.Builder()
+        .name("count")
+        .description("How many modules to display.")
+        .defaultValue(5)
+        .min(1)
+        .sliderRange(1, 20)
+        .build()
+    );
+
+    private final Setting<Boolean> textShadow = sgGeneral.add(new BoolSetting.Builder()
+        .name("text-shadow")
+        .description("Renders shadow behind text.")
+        .defaultValue(true)
+        .build()
+    );
+
+    private final Setting<SettingColor> moduleColor = sgGeneral.add(new ColorSetting.Builder()
+        .name("module-color")
+        .description("Module color.")
+        .defaultValue(new SettingColor())
+        .build()
+    );
+
+    private final Setting<SettingColor> timeColor = sgGeneral.add(new ColorSetting.Builder()
+        .name("time-color")
+        .description("Color of the milliseconds spent per second.")
+        .defaultValue(new SettingColor(175, 175, 175))
+        .build()
+    );
+
+    private final Setting<Alignment> alignment = sgGeneral.add(new EnumSetting.Builder<Alignment>()
+        .name("alignment")
+        .description("Horizontal alignment.")
+        .defaultValue(Alignment.Auto)
+        .build()
+    );
+
+    private final List<Module> modules = new ArrayList<>();
+
+    public ProfilerHud() {
+        super(INFO);
+    }
+
+    @Override
+    public void tick(HudRenderer renderer) {
+        modules.clear();
+
+        for (ModuleProfiler.Entry entry : ModuleProfiler.getEntries()) {
+            if (modules.size() >= count.get()) break;
+            if (!modules.contains(entry.module())) modules.add(entry.module());
+        }
+    }
+
+    @Override
+    public void render(HudRenderer renderer) {
+        if (modules.isEmpty()) {
+            String text = ModuleProfiler.isRunning() ? "Profiler" : "Profiler (stopped)";
+
+            renderer.text(text, x, y, moduleColor.get(), textShadow.get());
+            setSize(renderer.textWidth(text), renderer.textHeight());
+            return;
+        }
+
+        double seconds = Math.max(ModuleProfiler.getSeconds(), 0.001);
+
+        double y = this.y;
+        double width = 0;
+        double height = 0;
+
+        for (int i = 0; i < modules.size(); i++) {
+            Module module = modules.get(i);
+            String time = String.format(Locale.ROOT, "%.2f ms/s", ModuleProfiler.getTotalNanos(module) / 1_000_000.0 / seconds);
+
+            double moduleWidth = renderer.textWidth(module.title) + renderer.textWidth(" ") + renderer.textWidth(time);
+
+            double x = this.x + alignX(moduleWidth, alignment.get());
+            x = renderer.text(module.title, x, y, moduleColor.get(), textShadow.get());
+            renderer.text(time, x + renderer.textWidth(" "), y, timeColor.get(), textShadow.get());
+            y += renderer.textHeight() + 2;
+
+            width = Math.max(width, moduleWidth);
+            height += renderer.textHeight();
+            if (i > 0) height += 2;
+        }
+
+        setSize(width, height);
+    }
+}
@@ -7,15 +7,17 @@ package meteordevelopment.meteorclient.systems.hud.elements;
 
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.gui.utils.StarscriptTextBoxRenderer;
+import meteordevelopment.meteorclient.renderer.Fonts;
+import meteordevelopment.meteorclient.renderer.text.CustomTextRenderer;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.hud.Hud;
 import meteordevelopment.meteorclient.systems.hud.HudElement;
 import meteordevelopment.meteorclient.systems.hud.HudElementInfo;
 import meteordevelopment.meteorclient.systems.hud.HudRenderer;
 import meteordevelopment.meteorclient.utils.misc.MeteorStarscript;
+import meteordevelopment.meteorclient.utils.misc.TrackedScript;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
-import meteordevelopment.starscript.Script;
 import meteordevelopment.starscript.Section;
 import meteordevelopment.starscript.compiler.Compiler;
 import meteordevelopment.starscript.compiler.Parser;
@@ -132,8 +134,13 @@ public class TextHud extends HudElement {
         .build()
     );
 
-    private Script script, conditionScript;
+    private TrackedScript script, conditionScript;
     private Section section;
+    private String sectionText;
+
+    private double sizeScale;
+    private boolean sizeCustomFont;
+    private CustomTextRenderer sizeFont;
 
     private boolean firstTick = true;
     private boolean empty = false;
@@ -157,12 +164,26 @@ public class TextHud extends HudElement {
         super.setSize(width + border.get() * 2, height + border.get() * 2);
     }
 
+    private void setSection(Section section, HudRenderer renderer) {
+        this.section = section;
+
+        // Only measure the text again when it changed
+        String text = section.toString();
+        if (text.equals(sectionText)) return;
+
+        sectionText = text;
+        calculateSize(renderer);
+    }
+
     private void calculateSize(HudRenderer renderer) {
+        sizeScale = getEffectiveScale();
+        sizeCustomFont = Hud.get().hasCustomFont();
+        sizeFont = Fonts.RENDERER;
+
         double width = 0;
 
-        if (section != null) {
-            String str = section.toString();
-            if (!str.isBlank()) width = renderer.textWidth(str, shadow.get(), getScale());
+        if (sectionText != null && !sectionText.isBlank()) {
+            width = renderer.textWidth(sectionText, shadow.get(), getScale());
         }
 
         if (width != 0) {
@@ -177,6 +198,11 @@ public class TextHud extends HudElement {
 
     @Override
     public void tick(HudRenderer renderer) {
+        // The global text scale and font don't notify elements when they change
+        if (sizeScale != getEffectiveScale() || sizeCustomFont != Hud.get().hasCustomFont() || sizeFont != Fonts.RENDERER) {
+            recalculateSize = true;
+        }
+
         if (recalculateSize) {
             calculateSize(renderer);
             recalculateSize = false;
@@ -195,33 +221,37 @@ public class TextHud extends HudElement {
 
             if (result.hasErrors()) {
                 script = null;
-                section = new Section(0, result.errors.getFirst().toString());
-                calculateSize(renderer);
+                setSection(new Section(0, result.errors.getFirst().toString()), renderer);
             }
-            else script = Compiler.compile(result);
+            else script = new TrackedScript(Compiler.compile(result));
 
             if (shown.get() != Shown.Always) {
-                conditionScript = Compiler.compile(Parser.parse(condition.get()));
+                conditionScript = new TrackedScript(Compiler.compile(Parser.parse(condition.get())));
             }
 
             needsCompile = false;
         }
 
         try {
-            if (script != null) {
-                section = MeteorStarscript.ss.run(script);
-                calculateSize(renderer);
+            if (script != null && script.update()) {
+                setSection(script.getSection(), renderer);
             }
         }
         catch (StarscriptError error) {
-            section = new Section(0, error.getMessage());
-            calculateSize(renderer);
+            setSection(new Section(0, error.getMessage()), renderer);
         }
 
         if (shown.get() != Shown.Always && conditionScript != null) {
-            String text = MeteorStarscript.run(conditionScript);
-            if (text == null) visible = false;
-            else visible = shown.get() == Shown.WhenTrue ? text.equalsIgnoreCase("true") : text.equalsIgnoreCase("false");
+            try {
+                if (conditionScript.update()) {
+                    String text = conditionScript.getSection().toString();
+                    visible = shown.get() == Shown.WhenTrue ? text.equalsIgnoreCase("true") : text.equalsIgnoreCase("false");
+                }
+            }
+            catch (StarscriptError error) {
+                MeteorStarscript.printChatError(error);
+                visible = false;
+            }
         }
 
         firstTick = false;
@@ -262,6 +292,10 @@ public class TextHud extends HudElement {
         return customScale.get() ? scale.get() : -1;
     }
 
+    private double getEffectiveScale() {
+        return customScale.get() ? scale.get() : Hud.get().getTextScale();
+    }
+
     public static Color getSectionColor(int i) {
         List<SettingColor> colors = Hud.get().textColors.get();
         return (i >= 0 && i < colors.size()) ? colors.get(i) : WHITE;
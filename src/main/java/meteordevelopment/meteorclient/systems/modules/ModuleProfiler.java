@@ -0,0 +1,382 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.packets.PacketListeners;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.IListener;
+import meteordevelopment.orbit.listeners.ConsumerListener;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Measures how long the event handlers of every module take, per module and event type.
+ * <p>
+ * Modules subscribe through {@link #subscribe(Module)}. While the profiler isn't running that is the same as subscribing
+ * them to the event bus, so nothing is measured and nothing is slower. Once it is started every subscribed module is
+ * moved to listeners that time the handler they wrap, {@link meteordevelopment.meteorclient.events.packets.PacketHandler}
+ * methods are timed by {@link PacketListeners}. Timings can be recorded from any thread, packets are handled on the
+ * netty thread.
+ */
+public class ModuleProfiler {
+    private static final File FOLDER = new File(MeteorClient.FOLDER, "profiler");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss", Locale.ROOT);
+
+    private static final Set<Module> SUBSCRIBED = new ReferenceOpenHashSet<>();
+    private static final Map<Module, List<IListener>> LISTENERS = new Reference2ObjectOpenHashMap<>();
+    private static final Map<Module, Map<Class<?>, Stats>> STATS = new ConcurrentHashMap<>();
+
+    private static volatile boolean running;
+    private static long startTime, stopTime;
+
+    private ModuleProfiler() {
+    }
+
+    public static synchronized void subscribe(Module module) {
+        if (!SUBSCRIBED.add(module)) return;
+
+        if (running) {
+            for (IListener listener : getListeners(module)) MeteorClient.EVENT_BUS.subscribe(listener);
+        }
+        else MeteorClient.EVENT_BUS.subscribe(module);
+
+        PacketListeners.subscribe(module);
+    }
+
+    public static synchronized void unsubscribe(Module module) {
+        if (!SUBSCRIBED.remove(module)) return;
+
+        if (running) {
+            for (IListener listener : getListeners(module)) MeteorClient.EVENT_BUS.unsubscribe(listener);
+        }
+        else MeteorClient.EVENT_BUS.unsubscribe(module);
+
+        PacketListeners.unsubscribe(module);
+    }
+
+    // Control
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    public static synchronized void start() {
+        if (running) return;
+
+        reset();
+
+        for (Module module : SUBSCRIBED) {
+            MeteorClient.EVENT_BUS.unsubscribe(module);
+            for (IListener listener : getListeners(module)) MeteorClient.EVENT_BUS.subscribe(listener);
+        }
+
+        running = true;
+    }
+
+    /** Stops measuring, the timings are kept until the next {@link #start()} or {@link #reset()}. */
+    public static synchronized void stop() {
+        if (!running) return;
+
+        for (Module module : SUBSCRIBED) {
+            for (IListener listener : getListeners(module)) MeteorClient.EVENT_BUS.unsubscribe(listener);
+            MeteorClient.EVENT_BUS.subscribe(module);
+        }
+
+        running = false;
+        stopTime = System.nanoTime();
+    }
+
+    public static synchronized void reset() {
+        for (Map<Class<?>, Stats> events : STATS.values()) {
+            for (Stats stats : events.values()) stats.reset();
+        }
+
+        startTime = System.nanoTime();
+        stopTime = startTime;
+    }
+
+    /** How long the profiler has been measuring since it was started or reset. */
+    public static synchronized double getSeconds() {
+        return ((running ? System.nanoTime() : stopTime) - startTime) / 1_000_000_000.0;
+    }
+
+    // Stats
+
+    public static Stats getStats(Module module, Class<?> event) {
+        return STATS.computeIfAbsent(module, m -> new ConcurrentHashMap<>()).computeIfAbsent(event, e -> new Stats());
+    }
+
+    public static long getTotalNanos(Module module) {
+        Map<Class<?>, Stats> events = STATS.get(module);
+        if (events == null) return 0;
+
+        long total = 0;
+        for (Stats stats : events.values()) total += stats.getTotalNanos();
+        return total;
+    }
+
+    /** Every module and event type that was called at least once, the most expensive modules and events first. */
+    public static List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>();
+        Map<Module, Long> totals = new Reference2ObjectOpenHashMap<>();
+
+        for (Map.Entry<Module, Map<Class<?>, Stats>> module : STATS.entrySet()) {
+            for (Map.Entry<Class<?>, Stats> event : module.getValue().entrySet()) {
+                if (event.getValue().getCalls() == 0) continue;
+
+                entries.add(new Entry(module.getKey(), event.getKey(), event.getValue()));
+            }
+
+            totals.put(module.getKey(), getTotalNanos(module.getKey()));
+        }
+
+        entries.sort(Comparator.<Entry>comparingLong(entry -> totals.get(entry.module())).reversed()
+            .thenComparing(entry -> entry.module().name)
+            .thenComparing(Comparator.<Entry>comparingLong(entry -> entry.stats().getTotalNanos()).reversed()));
+
+        return entries;
+    }
+
+    public static String getEventName(Class<?> event) {
+        String name = event.getName();
+        return name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+    }
+
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + " ns";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1f us", nanos / 1_000.0);
+        return String.format(Locale.ROOT, "%.2f ms", nanos / 1_000_000.0);
+    }
+
+    public record Entry(Module module, Class<?> event, Stats stats) {}
+
+    // Saving
+
+    public enum Format {
+        Json,
+        Csv
+    }
+
+    public static File save(Format format) throws IOException {
+        FOLDER.mkdirs();
+
+        String date = DATE_TIME_FORMATTER.format(LocalDateTime.now());
+        File file = new File(FOLDER, "profile_" + date + (format == Format.Json ? ".json" : ".csv"));
+
+        List<Entry> entries = getEntries();
+        double seconds = getSeconds();
+
+        try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+            if (format == Format.Json) writeJson(writer, entries, seconds);
+            else writeCsv(writer, entries);
+        }
+
+        return file;
+    }
+
+    private static void writeJson(Writer writer, List<Entry> entries, double seconds) {
+        JsonObject json = new JsonObject();
+        json.addProperty("seconds", seconds);
+
+        JsonArray array = new JsonArray();
+
+        for (Entry entry : entries) {
+            JsonObject o = new JsonObject();
+
+            o.addProperty("module", entry.module().name);
+            o.addProperty("event", getEventName(entry.event()));
+            o.addProperty("calls", entry.stats().getCalls());
+            o.addProperty("total_ns", entry.stats().getTotalNanos());
+            o.addProperty("mean_ns", entry.stats().getMeanNanos());
+            o.addProperty("p50_ns", entry.stats().getPercentileNanos(0.5));
+            o.addProperty("p99_ns", entry.stats().getPercentileNanos(0.99));
+            o.addProperty("max_ns", entry.stats().getMaxNanos());
+
+            array.add(o);
+        }
+
+        json.add("entries", array);
+        GSON.toJson(json, writer);
+    }
+
+    private static void writeCsv(Writer writer, List<Entry> entries) throws IOException {
+        writer.write("module,event,calls,total_ns,mean_ns,p50_ns,p99_ns,max_ns\n");
+
+        for (Entry entry : entries) {
+            Stats stats = entry.stats();
+
+            writer.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d\n",
+                entry.module().name, getEventName(entry.event()), stats.getCalls(), stats.getTotalNanos(),
+                stats.getMeanNanos(), stats.getPercentileNanos(0.5), stats.getPercentileNanos(0.99), stats.getMaxNanos()
+            ));
+        }
+    }
+
+    // Listeners
+
+    private static List<IListener> getListeners(Module module) {
+        List<IListener> listeners = LISTENERS.get(module);
+        if (listeners != null) return listeners;
+
+        listeners = new ArrayList<>();
+
+        // Same methods orbit subscribes for the object
+        for (Class<?> klass = module.getClass(); klass != null; klass = klass.getSuperclass()) {
+            for (Method method : klass.getDeclaredMethods()) {
+                EventHandler annotation = method.getAnnotation(EventHandler.class);
+                if (annotation == null || method.getReturnType() != void.class || method.getParameterCount() != 1) continue;
+
+                listeners.add(createListener(module, method, annotation.priority()));
+            }
+        }
+
+        LISTENERS.put(module, listeners);
+        return listeners;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IListener createListener(Module module, Method method, int priority) {
+        Class<?> event = method.getParameterTypes()[0];
+        Consumer<Object> handler = createHandler(module, method, event);
+        Stats stats = getStats(module, event);
+
+        return new ConsumerListener<>((Class<Object>) event, priority, e -> {
+            long start = System.nanoTime();
+            handler.accept(e);
+            stats.record(System.nanoTime() - start);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Object> createHandler(Module module, Method method, Class<?> event) {
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        try {
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+
+            CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                isStatic ? MethodType.methodType(Consumer.class) : MethodType.methodType(Consumer.class, owner),
+                MethodType.methodType(void.class, Object.class),
+                lookup.unreflect(method),
+                MethodType.methodType(void.class, event)
+            );
+
+            return (Consumer<Object>) (isStatic ? site.getTarget().invoke() : site.getTarget().invoke(module));
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to create profiled listener for " + method, e);
+        }
+    }
+
+    /**
+     * Call count, total and a histogram of durations. The histogram has 8 buckets for every power of two, so percentiles
+     * are within 12.5% of the real value. Everything is updated without locking.
+     */
+    public static class Stats {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int MAX_EXPONENT = 36; // ~68 seconds
+        private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+
+            calls.increment();
+            total.add(nanos);
+            if (nanos > max.get()) max.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(getBucket(nanos));
+        }
+
+        public void reset() {
+            calls.reset();
+            total.reset();
+            max.set(0);
+            for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getTotalNanos() {
+            return total.sum();
+        }
+
+        public long getMeanNanos() {
+            long calls = getCalls();
+            return calls == 0 ? 0 : getTotalNanos() / calls;
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        public long getPercentileNanos(double percentile) {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) count += buckets.get(i);
+            if (count == 0) return 0;
+
+            long target = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return Math.min(getUpperBound(i), getMaxNanos());
+            }
+
+            return getMaxNanos();
+        }
+
+        private static int getBucket(long nanos) {
+            if (nanos < SUB_BUCKETS) return (int) nanos;
+
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+
+            int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long getUpperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long sub = bucket % SUB_BUCKETS;
+
+            return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+    }
+}
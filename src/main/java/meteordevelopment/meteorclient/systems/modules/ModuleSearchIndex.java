@@ -0,0 +1,255 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules;
+
+import it.unimi.dsi.fastutil.chars.Char2IntOpenHashMap;
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import meteordevelopment.meteorclient.settings.Setting;
+import meteordevelopment.meteorclient.settings.SettingGroup;
+import meteordevelopment.meteorclient.utils.Utils;
+
+import java.util.*;
+
+/**
+ * Ranks modules by {@link Utils#searchLevenshteinDefault(String, String, boolean)} against a set of lower cased strings
+ * per module, giving the same order as scoring every string but without running the edit distance for all of them.
+ * <p>
+ * Every string is indexed by its characters. Since the query is the source of the edit distance, the number of query
+ * characters a string can match bounds its score from below, and that bound is updated from the index only for the
+ * characters that were typed or erased since the last query. Strings are scored in order of their bound until no
+ * remaining one can make it into the results, and each string keeps the distance rows of the query it was last scored
+ * against, so typing another character only computes one more row.
+ */
+public class ModuleSearchIndex {
+    private static final int INS_COST = 1, SUB_COST = 8, DEL_COST = 8;
+
+    private final List<Module> modules;
+    private final Entry[][] entries;
+
+    private final Char2ObjectOpenHashMap<Posting> postings = new Char2ObjectOpenHashMap<>();
+    private final Char2IntOpenHashMap queryCounts = new Char2IntOpenHashMap();
+    private String query = "";
+
+    private ModuleSearchIndex(List<Module> modules, Entry[][] entries) {
+        this.modules = modules;
+        this.entries = entries;
+
+        for (Entry[] moduleEntries : entries) {
+            for (Entry entry : moduleEntries) {
+                Char2IntOpenHashMap counts = new Char2IntOpenHashMap();
+                for (int i = 0; i < entry.text.length(); i++) counts.addTo(entry.text.charAt(i), 1);
+
+                counts.char2IntEntrySet().fastForEach(e -> postings.computeIfAbsent(e.getCharKey(), c -> new Posting()).add(entry, e.getIntValue()));
+            }
+        }
+    }
+
+    /** Indexes module titles and aliases, aliases only take part in the ranking if {@code useAliases} is passed to {@link #search(String, int, boolean)}. */
+    public static ModuleSearchIndex titles(List<Module> modules) {
+        Entry[][] entries = new Entry[modules.size()][];
+
+        for (int i = 0; i < modules.size(); i++) {
+            Module module = modules.get(i);
+
+            entries[i] = new Entry[1 + module.aliases.length];
+            entries[i][0] = new Entry(module.title, false);
+            for (int j = 0; j < module.aliases.length; j++) entries[i][j + 1] = new Entry(module.aliases[j], true);
+        }
+
+        return new ModuleSearchIndex(modules, entries);
+    }
+
+    public static ModuleSearchIndex settings(List<Module> modules) {
+        Entry[][] entries = new Entry[modules.size()][];
+
+        for (int i = 0; i < modules.size(); i++) {
+            List<Entry> list = new ArrayList<>();
+
+            for (SettingGroup sg : modules.get(i).settings) {
+                for (Setting<?> setting : sg) list.add(new Entry(setting.title, false));
+            }
+
+            entries[i] = list.toArray(new Entry[0]);
+        }
+
+        return new ModuleSearchIndex(modules, entries);
+    }
+
+    /**
+     * Returns the {@code limit} best matching modules, ordered by score and then by module like
+     * {@link meteordevelopment.meteorclient.utils.misc.ValueComparableMap} does. Modules without any indexed string
+     * score {@link Integer#MAX_VALUE}.
+     */
+    public Set<Module> search(String text, int limit, boolean useAliases) {
+        setQuery(text.toLowerCase(Locale.ROOT));
+
+        Integer[] order = new Integer[modules.size()];
+        int[] bounds = new int[modules.size()];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            bounds[i] = lowerBound(entries[i], useAliases);
+        }
+
+        Arrays.sort(order, (a, b) -> {
+            int cmp = Integer.compare(bounds[a], bounds[b]);
+            return cmp != 0 ? cmp : modules.get(a).compareTo(modules.get(b));
+        });
+
+        // Scores of modules that are worse than the ones already found don't matter
+        List<Result> results = new ArrayList<>(Math.min(limit, order.length));
+        Comparator<Result> comparator = Comparator.comparingInt(Result::score).thenComparing(Result::module);
+
+        for (int i : order) {
+            if (results.size() >= limit) {
+                Result worst = results.get(results.size() - 1);
+                if (bounds[i] > worst.score() || (bounds[i] == worst.score() && modules.get(i).compareTo(worst.module()) > 0)) break;
+            }
+
+            Result result = new Result(modules.get(i), score(entries[i], useAliases));
+
+            int index = Collections.binarySearch(results, result, comparator);
+            results.add(index < 0 ? -index - 1 : index, result);
+            if (results.size() > limit) results.remove(results.size() - 1);
+        }
+
+        Set<Module> set = new LinkedHashSet<>(results.size());
+        for (Result result : results) set.add(result.module());
+        return set;
+    }
+
+    // Bounds
+
+    /** Moves the per entry match counts from the previous query to the new one, only touching postings of changed characters. */
+    private void setQuery(String text) {
+        int common = 0;
+        int max = Math.min(query.length(), text.length());
+        while (common < max && query.charAt(common) == text.charAt(common)) common++;
+
+        for (int i = query.length() - 1; i >= common; i--) {
+            char c = query.charAt(i);
+            int count = queryCounts.addTo(c, -1);
+
+            Posting posting = postings.get(c);
+            if (posting != null) posting.update(count, -1);
+        }
+
+        for (int i = common; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int count = queryCounts.addTo(c, 1) + 1;
+
+            Posting posting = postings.get(c);
+            if (posting != null) posting.update(count, 1);
+        }
+
+        query = text;
+    }
+
+    private int lowerBound(Entry[] moduleEntries, boolean useAliases) {
+        int bound = Integer.MAX_VALUE;
+        int q = query.length();
+
+        for (Entry entry : moduleEntries) {
+            if (entry.alias && !useAliases) continue;
+
+            // Every query character that doesn't match costs a deletion or substitution, extra text characters are insertions
+            int unmatched = q - entry.matches;
+            bound = Math.min(bound, unmatched * DEL_COST + Math.max(0, entry.text.length() - q) * INS_COST);
+        }
+
+        return bound;
+    }
+
+    // Scores
+
+    private int score(Entry[] moduleEntries, boolean useAliases) {
+        int score = Integer.MAX_VALUE;
+
+        for (Entry entry : moduleEntries) {
+            if (entry.alias && !useAliases) continue;
+            score = Math.min(score, entry.score(query));
+        }
+
+        return score;
+    }
+
+    private static class Entry {
+        private final String text;
+        private final boolean alias;
+
+        /** Upper bound for how many characters of the current query this string can match. */
+        private int matches;
+
+        private String rowsQuery = "";
+        private int[][] rows;
+
+        public Entry(String text, boolean alias) {
+            this.text = text.toLowerCase(Locale.ROOT);
+            this.alias = alias;
+        }
+
+        /** Same as {@link Utils#levenshteinDistance(String, String, int, int, int)} with the query as the source, reusing the rows of the shared prefix. */
+        public int score(String query) {
+            int t = text.length();
+            int q = query.length();
+
+            if (q == 0) return t * INS_COST;
+            if (t == 0) return q * DEL_COST;
+
+            int common = 0;
+            int max = Math.min(rowsQuery.length(), q);
+            while (common < max && rowsQuery.charAt(common) == query.charAt(common)) common++;
+
+            if (rows == null) {
+                rows = new int[Math.max(q, 8) + 1][];
+
+                rows[0] = new int[t + 1];
+                for (int j = 0; j <= t; j++) rows[0][j] = j * INS_COST;
+            }
+            else if (rows.length <= q) rows = Arrays.copyOf(rows, Math.max(q + 1, rows.length * 2));
+
+            for (int i = common + 1; i <= q; i++) {
+                int[] previous = rows[i - 1];
+                int[] row = rows[i];
+                if (row == null) row = rows[i] = new int[t + 1];
+
+                char c = query.charAt(i - 1);
+                row[0] = i * DEL_COST;
+
+                for (int j = 1; j <= t; j++) {
+                    int sCost = previous[j - 1] + (c == text.charAt(j - 1) ? 0 : SUB_COST);
+                    int dCost = previous[j] + DEL_COST;
+                    int iCost = row[j - 1] + INS_COST;
+                    row[j] = Math.min(Math.min(dCost, iCost), sCost);
+                }
+            }
+
+            rowsQuery = query;
+            return rows[q][t];
+        }
+    }
+
+    /** All strings containing a character together with how often they contain it. */
+    private static class Posting {
+        private final List<Entry> entries = new ArrayList<>();
+        private final IntArrayList counts = new IntArrayList();
+
+        public void add(Entry entry, int count) {
+            entries.add(entry);
+            counts.add(count);
+        }
+
+        /** The query now holds this character {@code queryCount} times, strings holding it at least that often match one more or one less query character. */
+        public void update(int queryCount, int delta) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (counts.getInt(i) >= queryCount) entries.get(i).matches += delta;
+            }
+        }
+    }
+
+    private record Result(Module module, int score) {}
+}
@@ -35,7 +35,6 @@ import meteordevelopment.meteorclient.systems.modules.world.Timer;
 import meteordevelopment.meteorclient.systems.modules.world.*;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
-import meteordevelopment.meteorclient.utils.misc.ValueComparableMap;
 import meteordevelopment.meteorclient.utils.misc.input.Input;
 import meteordevelopment.meteorclient.utils.misc.input.KeyAction;
 import meteordevelopment.orbit.EventHandler;
@@ -70,6 +69,7 @@ public class Modules extends System<Modules> {
     private final Map<Category, List<Module>> groups = new Reference2ReferenceOpenHashMap<>();
 
     private final List<Module> active = new ArrayList<>();
+    private ModuleSearchIndex titleIndex, settingIndex;
     private Module moduleToBind;
     private boolean awaitingKeyRelease = false;
 
@@ -107,6 +107,9 @@ public class Modules extends System<Modules> {
             modules.sort(Comparator.comparing(o -> o.title));
         }
         modules.sort(Comparator.comparing(o -> o.title));
+
+        titleIndex = ModuleSearchIndex.titles(new ArrayList<>(moduleInstances.values()));
+        settingIndex = ModuleSearchIndex.settings(new ArrayList<>(moduleInstances.values()));
     }
 
     public static void registerCategory(Category category) {
@@ -169,37 +172,23 @@ public class Modules extends System<Modules> {
     }
 
     public Set<Module> searchTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            int score = Utils.searchLevenshteinDefault(module.title, text, false);
-            if (Config.get().moduleAliases.get()) {
-                for (String alias : module.aliases) {
-                    int aliasScore = Utils.searchLevenshteinDefault(alias, text, false);
-                    if (aliasScore < score) score = aliasScore;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + score);
-        }
+        return searchTitles(text, Integer.MAX_VALUE);
+    }
 
-        return modules.keySet();
+    /** Returns the {@code limit} modules whose title or alias best matches the text, best match first. */
+    public Set<Module> searchTitles(String text, int limit) {
+        if (titleIndex == null) titleIndex = ModuleSearchIndex.titles(new ArrayList<>(moduleInstances.values()));
+        return titleIndex.search(text, limit, Config.get().moduleAliases.get());
     }
 
     public Set<Module> searchSettingTitles(String text) {
-        Map<Module, Integer> modules = new ValueComparableMap<>(Comparator.naturalOrder());
-
-        for (Module module : this.moduleInstances.values()) {
-            int lowest = Integer.MAX_VALUE;
-            for (SettingGroup sg : module.settings) {
-                for (Setting<?> setting : sg) {
-                    int score = Utils.searchLevenshteinDefault(setting.title, text, false);
-                    if (score < lowest) lowest = score;
-                }
-            }
-            modules.put(module, modules.getOrDefault(module, 0) + lowest);
-        }
+        return searchSettingTitles(text, Integer.MAX_VALUE);
+    }
 
-        return modules.keySet();
+    /** Returns the {@code limit} modules with a setting whose title best matches the text, best match first. */
+    public Set<Module> searchSettingTitles(String text, int limit) {
+        if (settingIndex == null) settingIndex = ModuleSearchIndex.settings(new ArrayList<>(moduleInstances.values()));
+        return settingIndex.search(text, limit, false);
     }
 
     void addActive(Module module) {
@@ -315,7 +304,7 @@ public class Modules extends System<Modules> {
         synchronized (active) {
             for (Module module : modules) {
                 if (module.isActive() && !module.runInMainMenu) {
-                    MeteorClient.EVENT_BUS.subscribe(module);
+                    ModuleProfiler.subscribe(module);
                     module.onActivate();
                 }
             }
@@ -327,7 +316,7 @@ public class Modules extends System<Modules> {
         synchronized (active) {
             for (Module module : modules) {
                 if (module.isActive() && !module.runInMainMenu) {
-                    MeteorClient.EVENT_BUS.unsubscribe(module);
+                    ModuleProfiler.unsubscribe(module);
                     module.onDeactivate();
                 }
             }
@@ -394,6 +383,9 @@ public class Modules extends System<Modules> {
         }
 
         // Add the module
+        titleIndex = null;
+        settingIndex = null;
+
         moduleInstances.put(module.getClass(), module);
         modules.add(module);
         getGroup(module.category).add(module);
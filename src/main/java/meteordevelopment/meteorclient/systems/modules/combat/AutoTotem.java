@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.combat;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -102,7 +103,7 @@ public class AutoTotem extends Module {
         ticks++;
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
+    @PacketHandler(value = EntityStatusS2CPacket.class, priority = EventPriority.HIGH)
     private void onReceivePacket(PacketEvent.Receive event) {
         if (!(event.packet instanceof EntityStatusS2CPacket p)) return;
         if (p.getStatus() != 35) return;
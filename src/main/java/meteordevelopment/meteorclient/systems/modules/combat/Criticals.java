@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.combat;
 
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixininterface.IPlayerInteractEntityC2SPacket;
 import meteordevelopment.meteorclient.mixininterface.IPlayerMoveC2SPacket;
@@ -77,7 +78,7 @@ public class Criticals extends Module {
         sendTimer = 0;
     }
 
-    @EventHandler
+    @PacketHandler(PlayerInteractEntityC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (event.packet instanceof IPlayerInteractEntityC2SPacket packet && packet.meteor$getType() == PlayerInteractEntityC2SPacket.InteractType.ATTACK) {
             if (mace.get() && mc.player.getMainHandStack().getItem() instanceof MaceItem) {
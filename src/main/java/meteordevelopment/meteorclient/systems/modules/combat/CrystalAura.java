@@ -10,6 +10,7 @@ import it.unimi.dsi.fastutil.ints.*;
 import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
 import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.render.Render2DEvent;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
@@ -24,8 +25,11 @@ import meteordevelopment.meteorclient.systems.friends.Friends;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.EntitySnapshot;
 import meteordevelopment.meteorclient.utils.entity.EntityUtils;
+import meteordevelopment.meteorclient.utils.entity.ExposureCache;
 import meteordevelopment.meteorclient.utils.entity.Target;
+import meteordevelopment.meteorclient.utils.entity.fakeplayer.FakePlayerEntity;
 import meteordevelopment.meteorclient.utils.misc.Keybind;
 import meteordevelopment.meteorclient.utils.player.FindItemResult;
 import meteordevelopment.meteorclient.utils.player.InvUtils;
@@ -36,10 +40,12 @@ import meteordevelopment.meteorclient.utils.render.RenderUtils;
 import meteordevelopment.meteorclient.utils.render.color.Color;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
 import meteordevelopment.meteorclient.utils.world.BlockIterator;
+import meteordevelopment.meteorclient.utils.world.BlockSnapshot;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.meteorclient.utils.world.TickRate;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
@@ -54,12 +60,17 @@ import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.*;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.GameMode;
 import net.minecraft.world.RaycastContext;
 import org.joml.Vector3d;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -251,6 +262,13 @@ public class CrystalAura extends Module {
         .build()
     );
 
+    private final Setting<Boolean> parallelSearch = sgPlace.add(new BoolSetting.Builder()
+        .name("parallel-search")
+        .description("Ranks place positions on multiple threads, faster with big place ranges and many targets.")
+        .defaultValue(false)
+        .build()
+    );
+
     // Face place
 
     private final Setting<Boolean> facePlace = sgFacePlace.add(new BoolSetting.Builder()
@@ -591,6 +609,8 @@ public class CrystalAura extends Module {
     private int lastRotationTimer;
 
     private int placeRenderTimer, breakRenderTimer;
+    private ForkJoinPool searchPool;
+
     private final BlockPos.Mutable placeRenderPos = new BlockPos.Mutable();
     private final BlockPos.Mutable breakRenderPos = new BlockPos.Mutable();
     private Box renderBoxOne, renderBoxTwo;
@@ -638,6 +658,11 @@ public class CrystalAura extends Module {
         removed.clear();
 
         bestTarget = null;
+
+        if (searchPool != null) {
+            searchPool.shutdown();
+            searchPool = null;
+        }
     }
 
     private int getLastRotationStopDelay() {
@@ -762,7 +787,7 @@ public class CrystalAura extends Module {
         Entity crystal = null;
 
         // Find best crystal to break
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntitySnapshot.getByType(EntityType.END_CRYSTAL)) {
             float damage = getBreakDamage(entity, true);
 
             if (damage > bestDamage) {
@@ -881,7 +906,7 @@ public class CrystalAura extends Module {
         attacks++;
     }
 
-    @EventHandler
+    @PacketHandler(UpdateSelectedSlotC2SPacket.class)
     private void onPacketSend(PacketEvent.Send event) {
         if (event.packet instanceof UpdateSelectedSlotC2SPacket) {
             switchTimer = switchDelay.get();
@@ -909,10 +934,15 @@ public class CrystalAura extends Module {
         } else if (mainItem != Items.END_CRYSTAL && offItem != Items.END_CRYSTAL) return;
 
         // Check for multiplace
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntitySnapshot.getByType(EntityType.END_CRYSTAL)) {
             if (getBreakDamage(entity, false) > 0) return;
         }
 
+        if (parallelSearch.get()) {
+            doPlaceParallel();
+            return;
+        }
+
         // Setup variables
         AtomicDouble bestDamage = new AtomicDouble(0);
         AtomicReference<BlockPos.Mutable> bestBlockPos = new AtomicReference<>(new BlockPos.Mutable());
@@ -971,32 +1001,284 @@ public class CrystalAura extends Module {
         BlockIterator.after(() -> {
             if (bestDamage.get() == 0) return;
 
-            BlockHitResult result = getPlaceInfo(bestBlockPos.get());
+            doPlace(bestBlockPos.get(), bestDamage.get(), isSupport.get());
+        });
+    }
 
-            ((IVec3d) vec3d).meteor$set(
-                    result.getBlockPos().getX() + 0.5 + result.getSide().getVector().getX() * 1.0 / 2.0,
-                    result.getBlockPos().getY() + 0.5 + result.getSide().getVector().getY() * 1.0 / 2.0,
-                    result.getBlockPos().getZ() + 0.5 + result.getSide().getVector().getZ() * 1.0 / 2.0
-            );
+    private void doPlace(BlockPos bestBlockPos, double bestDamage, boolean isSupport) {
+        BlockHitResult result = getPlaceInfo(bestBlockPos);
+
+        ((IVec3d) vec3d).meteor$set(
+                result.getBlockPos().getX() + 0.5 + result.getSide().getVector().getX() * 1.0 / 2.0,
+                result.getBlockPos().getY() + 0.5 + result.getSide().getVector().getY() * 1.0 / 2.0,
+                result.getBlockPos().getZ() + 0.5 + result.getSide().getVector().getZ() * 1.0 / 2.0
+        );
+
+        if (rotate.get()) {
+            double yaw = Rotations.getYaw(vec3d);
+            double pitch = Rotations.getPitch(vec3d);
 
-            if (rotate.get()) {
-                double yaw = Rotations.getYaw(vec3d);
-                double pitch = Rotations.getPitch(vec3d);
+            if (yawStepMode.get() == YawStepMode.Break || doYawSteps(yaw, pitch)) {
+                setRotation(true, vec3d, 0, 0);
+                Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, bestDamage, isSupport ? bestBlockPos : null));
 
-                if (yawStepMode.get() == YawStepMode.Break || doYawSteps(yaw, pitch)) {
-                    setRotation(true, vec3d, 0, 0);
-                    Rotations.rotate(yaw, pitch, 50, () -> placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null));
+                placeTimer += placeDelay.get();
+            }
+        }
+        else {
+            placeCrystal(result, bestDamage, isSupport ? bestBlockPos : null);
+            placeTimer += placeDelay.get();
+        }
+    }
 
-                    placeTimer += placeDelay.get();
+    // Parallel place search
+
+    /**
+     * Same search as {@link #doPlace()} but the exposures of the candidates are calculated on {@link #searchPool}. The
+     * workers only read a copy of the blocks around the player and snapshots of the entities. Damage reductions depend on
+     * the armor and effects of the targets, so they are applied afterwards on the client thread.
+     */
+    private void doPlaceParallel() {
+        boolean supportEnabled = support.get() != SupportMode.Disabled;
+        boolean fastSupport = support.get() == SupportMode.Fast;
+        int range = (int) Math.ceil(placeRange.get());
+
+        // Collect candidates, only block states are checked here
+        List<PlaceCandidate> candidates = new ArrayList<>();
+
+        int px = mc.player.getBlockX();
+        int py = mc.player.getBlockY();
+        int pz = mc.player.getBlockZ();
+        int bottomY = mc.world.getBottomY();
+        int topY = bottomY + mc.world.getHeight() - 1;
+
+        for (int x = px - range; x <= px + range; x++) {
+            for (int z = pz - range; z <= pz + range; z++) {
+                for (int y = Math.max(bottomY, py - range); y <= Math.min(topY, py + range); y++) {
+                    blockPos.set(x, y, z);
+                    BlockState blockState = mc.world.getBlockState(blockPos);
+
+                    boolean hasBlock = blockState.isOf(Blocks.BEDROCK) || blockState.isOf(Blocks.OBSIDIAN);
+                    if (!hasBlock && (!supportEnabled || !blockState.isReplaceable())) continue;
+
+                    blockPos.move(0, 1, 0);
+                    if (!mc.world.getBlockState(blockPos).isAir()) continue;
+
+                    if (placement112.get()) {
+                        blockPos.move(0, 1, 0);
+                        if (!mc.world.getBlockState(blockPos).isAir()) continue;
+                    }
+
+                    candidates.add(new PlaceCandidate(new BlockPos(x, y, z), hasBlock));
                 }
             }
+        }
+
+        if (candidates.isEmpty()) return;
+
+        // Snapshot targets and everything else the workers depend on
+        boolean predict = predictMovement.get();
+        TargetSnapshot self = TargetSnapshot.of(mc.player, predict);
+
+        List<TargetSnapshot> targetSnapshots = new ArrayList<>(targets.size());
+        for (LivingEntity target : targets) targetSnapshots.add(TargetSnapshot.of(target, predict));
+
+        List<Box> entityBoxes = new ArrayList<>();
+        List<Entity> entities = new ArrayList<>();
+        EntitySnapshot.getWithin(range + 4, Entity.class, entity -> !entity.isSpectator() && !removed.contains(entity.getId()), entities);
+        for (Entity entity : entities) entityBoxes.add(entity.getBoundingBox());
+
+        PlaceSearch search = new PlaceSearch(
+            self,
+            targetSnapshots,
+            targets.indexOf(getNearestTarget()),
+            entityBoxes,
+            snapshotBlocks(px, py, pz, range, self, targetSnapshots),
+            new Vec3d(playerEyePos.x, playerEyePos.y, playerEyePos.z),
+            mc.player.getPos(),
+            placeRange.get(),
+            placeWallsRange.get(),
+            fastSupport,
+            placement112.get()
+        );
+
+        List<CandidateExposures> exposures = getSearchPool().submit(() -> candidates.parallelStream()
+            .map(candidate -> exposeCandidate(candidate, search))
+            .filter(Objects::nonNull)
+            .toList()
+        ).join();
+
+        // Rank the candidates, they are in iteration order so ties resolve like the serial search
+        double minimumDamage = Math.min(minDamage.get(), shouldFacePlace() ? 1.5 : minDamage.get());
+        float maxSelfDamage = antiSuicide.get() ? EntityUtils.getTotalHealth(mc.player) : Float.MAX_VALUE;
+
+        Placement best = null, bestSupport = null;
+
+        for (CandidateExposures candidate : exposures) {
+            Vec3d crystal = candidate.crystal();
+
+            // Check damage to self and anti suicide
+            float selfDamage = self.damage(crystal, candidate.selfExposure());
+            if (selfDamage > maxDamage.get() || selfDamage >= maxSelfDamage) continue;
+
+            // Check damage to targets
+            float damage = 0;
+
+            if (!candidate.hasBlock() && fastSupport) {
+                if (search.nearest() != -1) damage = targetSnapshots.get(search.nearest()).damage(crystal, candidate.targetExposures()[search.nearest()]);
+            }
             else {
-                placeCrystal(result, bestDamage.get(), isSupport.get() ? bestBlockPos.get() : null);
-                placeTimer += placeDelay.get();
+                for (int i = 0; i < targetSnapshots.size(); i++) {
+                    TargetSnapshot target = targetSnapshots.get(i);
+                    float dmg = target.damage(crystal, candidate.targetExposures()[i]);
+
+                    if (dmg > bestTargetDamage) {
+                        bestTarget = target.entity();
+                        bestTargetDamage = dmg;
+                        bestTargetTimer = 10;
+                    }
+
+                    damage += dmg;
+                }
             }
-        });
+
+            if (!candidate.free() || damage < minimumDamage || damage <= 0) continue;
+
+            if (candidate.hasBlock()) {
+                if (best == null || damage > best.damage()) best = new Placement(candidate.pos(), damage);
+            }
+            else if (bestSupport == null || damage > bestSupport.damage()) bestSupport = new Placement(candidate.pos(), damage);
+        }
+
+        if (best != null) doPlace(best.pos(), best.damage(), false);
+        else if (bestSupport != null) doPlace(bestSupport.pos(), bestSupport.damage(), true);
     }
 
+    /** Copies the blocks that the range raycasts and the explosion rays towards the targets can pass through. */
+    private BlockSnapshot snapshotBlocks(int px, int py, int pz, int range, TargetSnapshot self, List<TargetSnapshot> targets) {
+        int minX = px - range, minY = py - range, minZ = pz - range;
+        int maxX = px + range, maxY = py + range + 2, maxZ = pz + range;
+
+        // Explosions only reach entities whose position is within 12 blocks, give big bounding boxes some space on top
+        Box reach = new Box(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1).expand(16);
+
+        for (int i = -1; i < targets.size(); i++) {
+            Box box = (i == -1 ? self : targets.get(i)).box().expand(1);
+            if (!box.intersects(reach)) continue;
+
+            box = box.intersection(reach);
+
+            minX = Math.min(minX, MathHelper.floor(box.minX));
+            minY = Math.min(minY, MathHelper.floor(box.minY));
+            minZ = Math.min(minZ, MathHelper.floor(box.minZ));
+            maxX = Math.max(maxX, MathHelper.floor(box.maxX));
+            maxY = Math.max(maxY, MathHelper.floor(box.maxY));
+            maxZ = Math.max(maxZ, MathHelper.floor(box.maxZ));
+        }
+
+        return BlockSnapshot.of(mc.world, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /** Runs on the search pool, must only read from the search snapshot. */
+    private static CandidateExposures exposeCandidate(PlaceCandidate candidate, PlaceSearch search) {
+        BlockPos bp = candidate.pos();
+        BlockSnapshot blocks = search.blocks();
+        Vec3d crystal = new Vec3d(bp.getX() + 0.5, bp.getY() + 1, bp.getZ() + 0.5);
+
+        // Check range, collision shapes are taken without the player since the entity can't be read here
+        BlockPos crystalPos = bp.up();
+        BlockHitResult result = BlockView.raycast(search.eyePos(), crystal, blocks,
+            (view, pos) -> view.getBlockState(pos).getCollisionShape(view, pos).raycast(search.eyePos(), crystal, pos),
+            view -> null
+        );
+
+        double maxRange = result == null || result.getBlockPos().equals(crystalPos) ? search.range() : search.wallsRange();
+        if (search.playerPos().squaredDistanceTo(crystal) > maxRange * maxRange) return null;
+
+        // Check if it can be placed
+        Box crystalBox = new Box(bp.getX(), bp.getY() + 1, bp.getZ(), bp.getX() + 1, bp.getY() + (search.placement112() ? 2 : 3), bp.getZ() + 1);
+        boolean free = true;
+
+        for (Box entityBox : search.entityBoxes()) {
+            if (entityBox.intersects(crystalBox)) {
+                free = false;
+                break;
+            }
+        }
+
+        // Same as the overriding hit factory with obsidian at the crystal base, but reading the copied blocks
+        DamageUtils.RaycastFactory raycastFactory = (context, pos) -> {
+            BlockState state = pos.equals(bp) ? Blocks.OBSIDIAN.getDefaultState() : blocks.getBlockState(pos);
+            if (!ExposureCache.isBlastResistant(state)) return null;
+
+            return state.getCollisionShape(blocks, pos).raycast(context.start(), context.end(), pos);
+        };
+
+        float selfExposure = search.self().exposure(crystal, raycastFactory);
+        float[] targetExposures = new float[search.targets().size()];
+
+        if (!candidate.hasBlock() && search.fastSupport()) {
+            if (search.nearest() != -1) targetExposures[search.nearest()] = search.targets().get(search.nearest()).exposure(crystal, raycastFactory);
+        }
+        else {
+            for (int i = 0; i < targetExposures.length; i++) targetExposures[i] = search.targets().get(i).exposure(crystal, raycastFactory);
+        }
+
+        return new CandidateExposures(bp, candidate.hasBlock(), crystal, free, selfExposure, targetExposures);
+    }
+
+    private ForkJoinPool getSearchPool() {
+        if (searchPool == null) {
+            // Sized like the chunk scheduler so the two pools together leave cores for the game
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+            searchPool = new ForkJoinPool(threads, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Meteor-CrystalAura-Search-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+
+        return searchPool;
+    }
+
+    private record PlaceCandidate(BlockPos pos, boolean hasBlock) {}
+
+    private record CandidateExposures(BlockPos pos, boolean hasBlock, Vec3d crystal, boolean free, float selfExposure, float[] targetExposures) {}
+
+    private record Placement(BlockPos pos, float damage) {}
+
+    private record TargetSnapshot(LivingEntity entity, Vec3d pos, Box box, boolean immune) {
+        public static TargetSnapshot of(LivingEntity entity, boolean predictMovement) {
+            Vec3d pos = predictMovement ? entity.getPos().add(entity.getVelocity()) : entity.getPos();
+
+            Box box = entity.getBoundingBox();
+            if (predictMovement) box = box.offset(entity.getVelocity());
+
+            // The abilities of other players are not synced, only the game mode from the player list is reliable
+            GameMode gameMode = entity instanceof PlayerEntity player && !(player instanceof FakePlayerEntity) ? EntityUtils.getGameMode(player) : null;
+
+            return new TargetSnapshot(entity, pos, box, gameMode == GameMode.CREATIVE || gameMode == GameMode.SPECTATOR);
+        }
+
+        /** Safe to call on the search pool. */
+        public float exposure(Vec3d crystal, DamageUtils.RaycastFactory raycastFactory) {
+            if (immune || pos.squaredDistanceTo(crystal) > 12 * 12) return 0;
+            return DamageUtils.calculateExposure(crystal, box, raycastFactory);
+        }
+
+        /** Reads the armor and effects of the entity, only call on the client thread. */
+        public float damage(Vec3d crystal, float exposure) {
+            if (immune) return 0;
+            return DamageUtils.explosionDamage(entity, pos, crystal, 12f, exposure);
+        }
+    }
+
+    private record PlaceSearch(
+        TargetSnapshot self, List<TargetSnapshot> targets, int nearest, List<Box> entityBoxes, BlockSnapshot blocks,
+        Vec3d eyePos, Vec3d playerPos, double range, double wallsRange, boolean fastSupport, boolean placement112
+    ) {}
+
     private BlockHitResult getPlaceInfo(BlockPos blockPos) {
         ((IVec3d) vec3d).meteor$set(mc.player.getX(), mc.player.getY() + mc.player.getEyeHeight(mc.player.getPose()), mc.player.getZ());
 
@@ -1077,7 +1359,7 @@ public class CrystalAura extends Module {
 
     // Yaw steps
 
-    @EventHandler
+    @PacketHandler(PlayerMoveC2SPacket.class)
     private void onPacketSent(PacketEvent.Sent event) {
         if (event.packet instanceof PlayerMoveC2SPacket) {
             serverYaw = ((PlayerMoveC2SPacket) event.packet).getYaw((float) serverYaw);
@@ -1211,7 +1493,7 @@ public class CrystalAura extends Module {
         targets.clear();
 
         // Living Entities
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntitySnapshot.getAll()) {
             // Ignore non-living
             if (!(entity instanceof LivingEntity livingEntity)) continue;
 
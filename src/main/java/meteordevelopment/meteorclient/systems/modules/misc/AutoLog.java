@@ -16,6 +16,7 @@ import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.systems.modules.Modules;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.entity.DamageUtils;
+import meteordevelopment.meteorclient.utils.entity.EntitySnapshot;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.entity.Entity;
@@ -155,7 +156,7 @@ public class AutoLog extends Module {
         if (!onlyTrusted.get() && !instantDeath.get() && entities.get().isEmpty())
             return; // only check all entities if needed
 
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntitySnapshot.getAll()) {
             if (entity instanceof PlayerEntity player && player.getUuid() != mc.player.getUuid()) {
                 if (onlyTrusted.get() && player != mc.player && !Friends.get().isFriend(player)) {
                     disconnect(Text.literal("Non-trusted player '" + Formatting.RED + player.getName().getString() + Formatting.WHITE + "' appeared in your render distance."));
@@ -179,7 +180,7 @@ public class AutoLog extends Module {
             entityCounts.clear();
 
             // Iterate through all entities in the world and count the ones that match the selected types and are within range
-            for (Entity entity : mc.world.getEntities()) {
+            for (Entity entity : EntitySnapshot.getAll()) {
                 if (PlayerUtils.isWithin(entity, range.get()) && entities.get().contains(entity.getType())) {
                     totalEntities++;
                     if (!useTotalCount.get()) {
@@ -11,6 +11,7 @@ import meteordevelopment.meteorclient.events.meteor.KeyEvent;
 import meteordevelopment.meteorclient.events.meteor.MouseButtonEvent;
 import meteordevelopment.meteorclient.events.packets.InventoryEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.CloseHandledScreenC2SPacketAccessor;
 import meteordevelopment.meteorclient.mixin.HandledScreenAccessor;
@@ -323,7 +324,7 @@ public class InventoryTweaks extends Module {
 
     // XCarry
 
-    @EventHandler
+    @PacketHandler(CloseHandledScreenC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (!xCarry.get() || !(event.packet instanceof CloseHandledScreenC2SPacket)) return;
 
@@ -313,7 +313,7 @@ public class Notebot extends Module {
                 double y2 = blockPos.getY() + 1;
                 double z2 = blockPos.getZ() + 1;
 
-                event.renderer.box(x1, y1, z1, x2, y2, z2, scannedNoteblockSideColor.get(), scannedNoteblockLineColor.get(), shapeMode.get(), 0);
+                event.renderer.boxes.box(x1, y1, z1, x2, y2, z2, scannedNoteblockSideColor.get(), scannedNoteblockLineColor.get(), shapeMode.get(), 0);
             }
         } else {
             for (var entry : noteBlockPositions.entrySet()) {
@@ -349,7 +349,7 @@ public class Notebot extends Module {
                     }
                 }
 
-                event.renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode.get(), 0);
+                event.renderer.boxes.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode.get(), 0);
             }
         }
     }
@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.misc;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -80,7 +81,7 @@ public class ServerSpoof extends Module {
         runInMainMenu = true;
     }
 
-    @EventHandler
+    @PacketHandler({ CustomPayloadC2SPacket.class, ResourcePackStatusC2SPacket.class })
     private void onPacketSend(PacketEvent.Send event) {
         if (!isActive()) return;
 
@@ -109,7 +110,7 @@ public class ServerSpoof extends Module {
         if (silentAcceptResourcePack && event.packet instanceof ResourcePackStatusC2SPacket) event.cancel();
     }
 
-    @EventHandler
+    @PacketHandler(ResourcePackSendS2CPacket.class)
     private void onPacketReceive(PacketEvent.Receive event) {
         if (!isActive() || !resourcePack.get()) return;
         if (!(event.packet instanceof ResourcePackSendS2CPacket packet)) return;
@@ -5,66 +5,141 @@
 
 package meteordevelopment.meteorclient.systems.modules.misc.swarm;
 
-import meteordevelopment.meteorclient.utils.player.ChatUtils;
-
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One non-blocking socket owned by a selector thread. Frames can be queued from any thread, reading and writing only
+ * happens on the selector thread.
+ */
+public class SwarmConnection {
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int MAX_BATCH = 64;
+
+    public final SocketChannel channel;
+    private final String address;
+    SelectionKey key;
 
-public class SwarmConnection extends Thread {
-    public final Socket socket;
-    public String messageToSend;
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer[] batch = new ByteBuffer[MAX_BATCH];
+    private ByteBuffer inbound = ByteBuffer.allocate(READ_BUFFER_SIZE);
 
-    public SwarmConnection(Socket socket) {
-        this.socket = socket;
-        start();
+    long lastReceived, lastSent;
+
+    public SwarmConnection(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        this.address = formatAddress(channel.getRemoteAddress());
+
+        lastReceived = lastSent = System.currentTimeMillis();
     }
 
-    @Override
-    public void run() {
-        ChatUtils.infoPrefix("Swarm", "New worker connected on %s.", getIp(socket.getInetAddress().getHostAddress()));
+    /** Queues a frame, the buffer itself is not modified so the same frame can be queued on multiple connections. */
+    public void queue(ByteBuffer frame) {
+        outbound.add(frame.duplicate());
+    }
 
-        try {
-            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
-
-            while (!isInterrupted()) {
-                if (messageToSend != null) {
-                    try {
-                        out.writeUTF(messageToSend);
-                        out.flush();
-                    } catch (Exception e) {
-                        ChatUtils.errorPrefix("Swarm", "Encountered error when sending command.");
-                        e.printStackTrace();
-                    }
-
-                    messageToSend = null;
-                }
+    boolean hasOutbound() {
+        return !outbound.isEmpty();
+    }
+
+    /**
+     * Writes as much of the queue as the socket accepts in one gathering write per batch.
+     * @return true if the queue is empty
+     */
+    boolean write() throws IOException {
+        while (!outbound.isEmpty()) {
+            int count = 0;
+
+            for (ByteBuffer buffer : outbound) {
+                batch[count++] = buffer;
+                if (count == MAX_BATCH) break;
             }
 
-            out.close();
-        } catch (IOException e) {
-            ChatUtils.infoPrefix("Swarm", "Error creating a connection with %s on port %s.", getIp(socket.getInetAddress().getHostAddress()), socket.getPort());
-            e.printStackTrace();
+            channel.write(batch, 0, count);
+            lastSent = System.currentTimeMillis();
+
+            try {
+                for (int i = 0; i < count; i++) {
+                    if (batch[i].hasRemaining()) return false;
+                    outbound.poll();
+                }
+            } finally {
+                Arrays.fill(batch, 0, count, null);
+            }
         }
+
+        return true;
     }
 
-    public void disconnect() {
-        try {
-            socket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Reads what is available and passes every complete frame to the handler.
+     * @return false if the other side closed the connection
+     */
+    boolean read(SwarmProtocol.FrameHandler handler) throws IOException {
+        int read = channel.read(inbound);
+        if (read == -1) return false;
+        if (read > 0) lastReceived = System.currentTimeMillis();
+
+        inbound.flip();
+        int required = 0;
+
+        while (inbound.remaining() >= SwarmProtocol.LENGTH_SIZE) {
+            int length = inbound.getInt(inbound.position());
+            if (length < 1 || length > SwarmProtocol.MAX_FRAME_SIZE) throw new IOException("Invalid frame length " + length);
+
+            if (inbound.remaining() < SwarmProtocol.LENGTH_SIZE + length) {
+                required = SwarmProtocol.LENGTH_SIZE + length;
+                break;
+            }
+
+            inbound.getInt();
+            byte type = inbound.get();
+            byte[] payload = new byte[length - 1];
+            inbound.get(payload);
+
+            handler.handle(type, payload);
+        }
+
+        inbound.compact();
+
+        // Make room for frames bigger than the buffer
+        if (required > inbound.capacity()) {
+            ByteBuffer buffer = ByteBuffer.allocate(required);
+            inbound.flip();
+            buffer.put(inbound);
+            inbound = buffer;
         }
 
-        ChatUtils.infoPrefix("Swarm", "Worker disconnected on ip: %s.", socket.getInetAddress().getHostAddress());
+        return true;
+    }
+
+    void close() {
+        if (key != null) key.cancel();
 
-        interrupt();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+
+        outbound.clear();
     }
 
     public String getConnection() {
-        return getIp(socket.getInetAddress().getHostAddress()) + ":" + socket.getPort();
+        return address;
     }
 
-    private String getIp(String ip) {
-        return ip.equals("127.0.0.1") ? "localhost" : ip;
+    private static String formatAddress(SocketAddress address) {
+        if (address instanceof InetSocketAddress inet) {
+            String ip = inet.getAddress().getHostAddress();
+            return (ip.equals("127.0.0.1") ? "localhost" : ip) + ":" + inet.getPort();
+        }
+
+        return String.valueOf(address);
     }
 }
@@ -5,90 +5,197 @@
 
 package meteordevelopment.meteorclient.systems.modules.misc.swarm;
 
-import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accepts workers and sends them commands, every connection is served by this single selector thread.
+ */
 public class SwarmHost extends Thread {
-    private ServerSocket socket;
-    private final SwarmConnection[] clientConnections = new SwarmConnection[50];
+    private Selector selector;
+    private ServerSocketChannel server;
+    private int port;
+
+    private final List<SwarmConnection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean flush = new AtomicBoolean();
+    private long lastHeartbeat;
 
     public SwarmHost(int port) {
+        super("Meteor-Swarm-Host");
+        setDaemon(true);
+
         try {
-            socket = new ServerSocket(port);
+            selector = Selector.open();
+
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+
+            this.port = server.socket().getLocalPort();
         } catch (IOException e) {
-            socket = null;
+            closeQuietly();
+            server = null;
+
             ChatUtils.errorPrefix("Swarm", "Couldn't start a server on port %s.", port);
             e.printStackTrace();
         }
 
-        if (socket != null) start();
+        if (server != null) start();
     }
 
     @Override
     public void run() {
-        ChatUtils.infoPrefix("Swarm", "Listening for incoming connections on port %s.", socket.getLocalPort());
-
-        while (!isInterrupted()) {
-            try {
-                Socket connection = socket.accept();
-                assignConnectionToSubServer(connection);
-            } catch (IOException e) {
-                ChatUtils.errorPrefix("Swarm", "Error making a connection to worker.");
-                e.printStackTrace();
+        ChatUtils.infoPrefix("Swarm", "Listening for incoming connections on port %s.", port);
+
+        try {
+            while (!isInterrupted()) {
+                selector.select(1000);
+
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) accept();
+                    else handle(key, (SwarmConnection) key.attachment());
+                }
+
+                if (flush.getAndSet(false)) {
+                    for (SwarmConnection connection : connections) {
+                        if (connection.hasOutbound() && connection.key.isValid()) connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+
+                heartbeat();
             }
+        } catch (IOException e) {
+            ChatUtils.errorPrefix("Swarm", "Error in the swarm server.");
+            e.printStackTrace();
+        } finally {
+            for (SwarmConnection connection : connections) connection.close();
+            connections.clear();
+
+            closeQuietly();
+            ChatUtils.infoPrefix("Swarm", "Server closed on port %s.", port);
+
+            interrupt();
         }
     }
 
-    public void assignConnectionToSubServer(Socket connection) {
-        for (int i = 0; i < clientConnections.length; i++) {
-            if (this.clientConnections[i] == null) {
-                this.clientConnections[i] = new SwarmConnection(connection);
-                break;
+    private void accept() {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) return;
+
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+
+            SwarmConnection connection = new SwarmConnection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+
+            ChatUtils.infoPrefix("Swarm", "New worker connected on %s.", connection.getConnection());
+        } catch (IOException e) {
+            ChatUtils.errorPrefix("Swarm", "Error making a connection to worker.");
+            e.printStackTrace();
+        }
+    }
+
+    private void handle(SelectionKey key, SwarmConnection connection) {
+        try {
+            // Workers only send heartbeats, receiving anything keeps the connection alive
+            if (key.isReadable() && !connection.read((type, payload) -> {})) {
+                close(connection);
+                return;
             }
+
+            if (key.isValid() && key.isWritable() && connection.write()) key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close(connection);
         }
     }
 
-    public void disconnect() {
-        for (SwarmConnection connection : clientConnections) {
-            if (connection != null) connection.disconnect();
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+
+        for (SwarmConnection connection : connections) {
+            if (now - connection.lastReceived > SwarmProtocol.TIMEOUT) {
+                ChatUtils.warningPrefix("Swarm", "Worker on %s timed out.", connection.getConnection());
+                close(connection);
+            }
         }
 
-        try {
-            socket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (now - lastHeartbeat < SwarmProtocol.HEARTBEAT_INTERVAL) return;
+        lastHeartbeat = now;
+
+        for (SwarmConnection connection : connections) {
+            if (now - connection.lastSent >= SwarmProtocol.HEARTBEAT_INTERVAL && !connection.hasOutbound()) {
+                connection.queue(SwarmProtocol.heartbeat());
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
         }
+    }
+
+    private void close(SwarmConnection connection) {
+        if (!connections.remove(connection)) return;
 
-        ChatUtils.infoPrefix("Swarm", "Server closed on port %s.", socket.getLocalPort());
+        connection.close();
+        ChatUtils.infoPrefix("Swarm", "Worker disconnected on %s.", connection.getConnection());
+    }
+
+    private void closeQuietly() {
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {}
 
+        try {
+            if (selector != null) selector.close();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Stops the server without waiting for the selector thread. The server socket is closed right away so the port is
+     * released once the thread wakes up, the thread closes the connections and the selector on its own.
+     */
+    public void disconnect() {
         interrupt();
+
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {}
+
+        if (selector != null) selector.wakeup();
     }
 
+    /** Sends the command to every worker. The frame is encoded once and shared between all connections. */
     public void sendMessage(String s) {
-        MeteorExecutor.execute(() -> {
-            for (SwarmConnection connection : clientConnections) {
-                if (connection != null) {
-                    connection.messageToSend = s;
-                }
-            }
-        });
+        if (selector == null) return;
+
+        ByteBuffer frame = SwarmProtocol.command(s);
+        for (SwarmConnection connection : connections) connection.queue(frame);
+
+        flush.set(true);
+        selector.wakeup();
     }
 
-    public SwarmConnection[] getConnections() {
-        return clientConnections;
+    public List<SwarmConnection> getConnections() {
+        return connections;
     }
 
     public int getConnectionCount() {
-        int count = 0;
-
-        for (SwarmConnection clientConnection : clientConnections) {
-            if (clientConnection != null) count++;
-        }
-
-        return count;
+        return connections.size();
     }
 }
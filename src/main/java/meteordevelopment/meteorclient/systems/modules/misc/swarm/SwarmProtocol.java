@@ -0,0 +1,52 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.systems.modules.misc.swarm;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by {@link SwarmHost} and {@link SwarmWorker}. Every frame starts with an int holding the length of
+ * the rest of the frame, followed by a byte for the frame type and the payload.
+ */
+public class SwarmProtocol {
+    public static final int LENGTH_SIZE = 4;
+    public static final int MAX_FRAME_SIZE = 1 << 20;
+
+    public static final byte COMMAND = 0;
+    public static final byte HEARTBEAT = 1;
+
+    /** Both sides send a heartbeat when they haven't sent anything for this many milliseconds. */
+    public static final long HEARTBEAT_INTERVAL = 5000;
+    /** Connections that haven't received anything for this many milliseconds are closed. */
+    public static final long TIMEOUT = 15000;
+
+    private static final ByteBuffer HEARTBEAT_FRAME = frame(HEARTBEAT, new byte[0]);
+
+    private SwarmProtocol() {
+    }
+
+    /** The returned buffer is read only and can be queued on multiple connections. */
+    public static ByteBuffer frame(byte type, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH_SIZE + 1 + payload.length);
+        buffer.putInt(1 + payload.length).put(type).put(payload).flip();
+
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public static ByteBuffer command(String command) {
+        return frame(COMMAND, command.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ByteBuffer heartbeat() {
+        return HEARTBEAT_FRAME;
+    }
+
+    @FunctionalInterface
+    public interface FrameHandler {
+        void handle(byte type, byte[] payload);
+    }
+}
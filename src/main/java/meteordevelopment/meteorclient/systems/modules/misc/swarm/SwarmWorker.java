@@ -10,69 +10,124 @@ import meteordevelopment.meteorclient.pathing.PathManagers;
 import meteordevelopment.meteorclient.utils.player.ChatUtils;
 import net.minecraft.block.Block;
 
-import java.io.DataInputStream;
 import java.io.IOException;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
 
 public class SwarmWorker extends Thread {
-    private Socket socket;
+    private Selector selector;
+    private SwarmConnection connection;
     public Block target;
 
     public SwarmWorker(String ip, int port) {
+        super("Meteor-Swarm-Worker");
+        setDaemon(true);
+
+        SocketChannel channel = null;
+
         try {
-            socket = new Socket(ip, port);
+            channel = SocketChannel.open(new InetSocketAddress(ip, port));
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+
+            selector = Selector.open();
+            connection = new SwarmConnection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
         } catch (Exception e) {
-            socket = null;
+            if (connection != null) connection.close();
+            else if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {}
+            }
+
+            connection = null;
             ChatUtils.warningPrefix("Swarm", "Server not found at %s on port %s.", ip, port);
             e.printStackTrace();
         }
 
-        if (socket != null) start();
+        if (connection != null) start();
     }
 
     @Override
     public void run() {
-        ChatUtils.infoPrefix("Swarm", "Connected to Swarm host on at %s on port %s.", getIp(socket.getInetAddress().getHostAddress()), socket.getPort());
+        ChatUtils.infoPrefix("Swarm", "Connected to Swarm host at %s.", connection.getConnection());
 
         try {
-            DataInputStream in = new DataInputStream(socket.getInputStream());
-
-
             while (!isInterrupted()) {
-                String read = in.readUTF();
+                selector.select(1000);
 
-                if (read.startsWith("swarm")) {
-                    ChatUtils.infoPrefix("Swarm", "Received command: (highlight)%s", read);
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
 
-                    try {
-                        Commands.dispatch(read);
-                    } catch (Exception e) {
-                        ChatUtils.error("Error fetching command.");
-                        e.printStackTrace();
+                    if (!key.isValid()) continue;
+
+                    if (key.isReadable() && !connection.read(this::onFrame)) {
+                        ChatUtils.infoPrefix("Swarm", "Host closed the connection.");
+                        return;
                     }
+
+                    if (key.isValid() && key.isWritable() && connection.write()) key.interestOps(SelectionKey.OP_READ);
                 }
-            }
 
-            in.close();
+                long now = System.currentTimeMillis();
+
+                if (now - connection.lastReceived > SwarmProtocol.TIMEOUT) {
+                    ChatUtils.warningPrefix("Swarm", "Connection to host timed out.");
+                    return;
+                }
+
+                if (now - connection.lastSent >= SwarmProtocol.HEARTBEAT_INTERVAL && !connection.hasOutbound()) {
+                    connection.queue(SwarmProtocol.heartbeat());
+                    connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
         } catch (IOException e) {
             ChatUtils.errorPrefix("Swarm", "Error in connection to host.");
             e.printStackTrace();
-            disconnect();
+        } finally {
+            connection.close();
+
+            try {
+                selector.close();
+            } catch (IOException ignored) {}
+
+            mc.execute(() -> PathManagers.get().stop());
+            ChatUtils.infoPrefix("Swarm", "Disconnected from host.");
+
+            interrupt();
         }
     }
 
-    public void disconnect() {
-        try {
-            socket.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private void onFrame(byte type, byte[] payload) {
+        if (type != SwarmProtocol.COMMAND) return;
 
-        PathManagers.get().stop();
+        String command = new String(payload, StandardCharsets.UTF_8);
+        if (!command.startsWith("swarm")) return;
+
+        ChatUtils.infoPrefix("Swarm", "Received command: (highlight)%s", command);
 
-        ChatUtils.infoPrefix("Swarm", "Disconnected from host.");
+        // Commands interact with the world, run them on the client thread
+        mc.execute(() -> {
+            try {
+                Commands.dispatch(command);
+            } catch (Exception e) {
+                ChatUtils.error("Error fetching command.");
+                e.printStackTrace();
+            }
+        });
+    }
 
+    public void disconnect() {
         interrupt();
+        if (selector != null) selector.wakeup();
     }
 
     public void tick() {
@@ -85,10 +140,6 @@ public class SwarmWorker extends Thread {
     }
 
     public String getConnection() {
-        return getIp(socket.getInetAddress().getHostAddress()) + ":" + socket.getPort();
-    }
-
-    private String getIp(String ip) {
-        return ip.equals("127.0.0.1") ? "localhost" : ip;
+        return connection.getConnection();
     }
 }
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.movement;
 
 import meteordevelopment.meteorclient.events.entity.BoatMoveEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.mixininterface.IVec3d;
 import meteordevelopment.meteorclient.settings.BoolSetting;
 import meteordevelopment.meteorclient.settings.DoubleSetting;
@@ -80,7 +81,7 @@ public class BoatFly extends Module {
         ((IVec3d) event.boat.getVelocity()).meteor$set(velX, velY, velZ);
     }
 
-    @EventHandler
+    @PacketHandler(VehicleMoveS2CPacket.class)
     private void onReceivePacket(PacketEvent.Receive event) {
         if (event.packet instanceof VehicleMoveS2CPacket && cancelServerPackets.get()) {
             event.cancel();
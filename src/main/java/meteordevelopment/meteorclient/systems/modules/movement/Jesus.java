@@ -8,6 +8,7 @@ package meteordevelopment.meteorclient.systems.modules.movement;
 import com.google.common.collect.Streams;
 import meteordevelopment.meteorclient.events.entity.player.CanWalkOnFluidEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.CollisionShapeEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.LivingEntityAccessor;
@@ -248,7 +249,7 @@ public class Jesus extends Module {
         }
     }
 
-    @EventHandler
+    @PacketHandler(PlayerMoveC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (!(event.packet instanceof PlayerMoveC2SPacket packet)) return;
         if (mc.player.isTouchingWater() && !waterShouldBeSolid()) return;
@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.movement;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.PlayerMoveC2SPacketAccessor;
 import meteordevelopment.meteorclient.mixininterface.IPlayerMoveC2SPacket;
@@ -102,7 +103,7 @@ public class NoFall extends Module {
         PathManagers.get().getSettings().getNoFall().set(prePathManagerNoFall);
     }
 
-    @EventHandler
+    @PacketHandler(PlayerMoveC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (mc.player.getAbilities().creativeMode
             || !(event.packet instanceof PlayerMoveC2SPacket)
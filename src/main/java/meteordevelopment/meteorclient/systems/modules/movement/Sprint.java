@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.movement;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.ClientPlayerEntityAccessor;
 import meteordevelopment.meteorclient.mixininterface.IPlayerInteractEntityC2SPacket;
@@ -77,7 +78,7 @@ public class Sprint extends Module {
         mc.player.setSprinting(shouldSprint());
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
+    @PacketHandler(value = PlayerInteractEntityC2SPacket.class, priority = EventPriority.HIGH)
     private void onPacketSend(PacketEvent.Send event) {
         if (!unsprintOnHit.get()) return;
         if (!(event.packet instanceof IPlayerInteractEntityC2SPacket packet)
@@ -87,7 +88,7 @@ public class Sprint extends Module {
         mc.player.setSprinting(false);
     }
 
-    @EventHandler
+    @PacketHandler(PlayerInteractEntityC2SPacket.class)
     private void onPacketSent(PacketEvent.Sent event) {
         if (!unsprintOnHit.get() || !keepSprint.get()) return;
         if (!(event.packet instanceof IPlayerInteractEntityC2SPacket packet)
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.movement.speed;
 
 import meteordevelopment.meteorclient.events.entity.player.PlayerMoveEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -135,7 +136,7 @@ public class Speed extends Module {
         currentMode.onTick();
     }
 
-    @EventHandler
+    @PacketHandler(PlayerPositionLookS2CPacket.class)
     private void onPacketReceive(PacketEvent.Receive event) {
         if (event.packet instanceof PlayerPositionLookS2CPacket) currentMode.onRubberband();
     }
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.player;
 
 import meteordevelopment.meteorclient.events.entity.player.SendMovementPacketsEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.mixin.PlayerMoveC2SPacketAccessor;
 import meteordevelopment.meteorclient.settings.BoolSetting;
 import meteordevelopment.meteorclient.settings.Setting;
@@ -45,7 +46,7 @@ public class AntiHunger extends Module {
         lastOnGround = mc.player.isOnGround();
     }
 
-    @EventHandler
+    @PacketHandler({ PlayerMoveC2SPacket.class, ClientCommandC2SPacket.class })
     private void onSendPacket(PacketEvent.Send event) {
         if (ignorePacket && event.packet instanceof PlayerMoveC2SPacket) {
             ignorePacket = false;
@@ -9,6 +9,7 @@ import meteordevelopment.meteorclient.events.entity.player.FinishUsingItemEvent;
 import meteordevelopment.meteorclient.events.entity.player.StoppedUsingItemEvent;
 import meteordevelopment.meteorclient.events.meteor.MouseButtonEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.BoolSetting;
 import meteordevelopment.meteorclient.settings.EnumSetting;
@@ -144,7 +145,7 @@ public class MiddleClickExtra extends Module {
         mc.options.useKey.setPressed(pressed);
     }
 
-    @EventHandler
+    @PacketHandler(UpdateSelectedSlotC2SPacket.class)
     private void onPacketSendEvent(PacketEvent.Send event) {
         if (event.packet instanceof UpdateSelectedSlotC2SPacket) {
             stopIfUsing(true);
@@ -6,9 +6,9 @@
 package meteordevelopment.meteorclient.systems.modules.player;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
-import meteordevelopment.orbit.EventHandler;
 import net.minecraft.entity.player.PlayerPosition;
 import net.minecraft.network.packet.s2c.play.PlayerPositionLookS2CPacket;
 
@@ -17,7 +17,7 @@ public class NoRotate extends Module {
         super(Categories.Player, "no-rotate", "Attempts to block rotations sent from server to client.");
     }
 
-    @EventHandler
+    @PacketHandler(PlayerPositionLookS2CPacket.class)
     private void onReceivePacket(PacketEvent.Receive event) {
         if (event.packet instanceof PlayerPositionLookS2CPacket packet) {
             PlayerPosition oldPosition = packet.change();
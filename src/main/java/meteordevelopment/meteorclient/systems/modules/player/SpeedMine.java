@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.player;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.mixin.ClientPlayerInteractionManagerAccessor;
 import meteordevelopment.meteorclient.settings.*;
@@ -114,7 +115,7 @@ public class SpeedMine extends Module {
         }
     }
 
-    @EventHandler
+    @PacketHandler(PlayerActionC2SPacket.class)
     private void onPacket(PacketEvent.Send event) {
         if (!(mode.get() == Mode.Damage) || !grimBypass.get()) return;
 
@@ -69,6 +69,6 @@ public class CityESP extends Module {
     private void onRender(Render3DEvent event) {
         if (target == null) return;
 
-        event.renderer.box(target, sideColor.get(), lineColor.get(), shapeMode.get(), 0);
+        event.renderer.boxes.box(target, sideColor.get(), lineColor.get(), shapeMode.get(), 0);
     }
 }
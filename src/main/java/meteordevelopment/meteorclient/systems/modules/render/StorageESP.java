@@ -315,7 +315,7 @@ public class StorageESP extends Module {
             if (Dir.isNot(excludeDir, Dir.SOUTH)) z2 -= a;
         }
 
-        event.renderer.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode.get(), excludeDir);
+        event.renderer.boxes.box(x1, y1, z1, x2, y2, z2, sideColor, lineColor, shapeMode.get(), excludeDir);
     }
 
     private void renderShader(Render3DEvent event, BlockEntity blockEntity) {
@@ -6,6 +6,7 @@
 package meteordevelopment.meteorclient.systems.modules.render;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.DoubleSetting;
 import meteordevelopment.meteorclient.settings.Setting;
@@ -42,7 +43,7 @@ public class TimeChanger extends Module {
         mc.world.getLevelProperties().setTimeOfDay(oldTime);
     }
 
-    @EventHandler
+    @PacketHandler(WorldTimeUpdateS2CPacket.class)
     private void onPacketReceive(PacketEvent.Receive event) {
         if (event.packet instanceof WorldTimeUpdateS2CPacket) {
             oldTime = ((WorldTimeUpdateS2CPacket) event.packet).timeOfDay();
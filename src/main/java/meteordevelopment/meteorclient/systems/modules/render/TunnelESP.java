@@ -12,6 +12,7 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.renderer.Renderer3D;
 import meteordevelopment.meteorclient.renderer.ShapeMode;
@@ -19,8 +20,8 @@ import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
-import meteordevelopment.meteorclient.utils.network.MeteorExecutor;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.ChunkScheduler;
 import meteordevelopment.meteorclient.utils.world.Dir;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.BlockState;
@@ -35,7 +36,6 @@ import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.chunk.ChunkStatus;
 
 public class TunnelESP extends Module {
-    private static final BlockPos.Mutable BP = new BlockPos.Mutable();
     private static final Direction[] DIRECTIONS = { Direction.EAST, Direction.NORTH, Direction.SOUTH, Direction.WEST };
 
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -77,6 +77,7 @@ public class TunnelESP extends Module {
     );
 
     private final Long2ObjectMap<TChunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final ChunkScheduler.Queue searchQueue = ChunkScheduler.queue("tunnel-esp", 512);
 
     public TunnelESP() {
         super(Categories.Render, "tunnel-esp", "Highlights tunnels.");
@@ -84,6 +85,7 @@ public class TunnelESP extends Module {
 
     @Override
     public void onDeactivate() {
+        searchQueue.clear();
         chunks.clear();
     }
 
@@ -104,53 +106,128 @@ public class TunnelESP extends Module {
     }
 
     private void searchChunk(Chunk chunk, TChunk tChunk) {
-        // Prepare variables
-        Context ctx = new Context();
-        IntSet set = new IntOpenHashSet();
+        synchronized (tChunk) {
+            // Prepare variables
+            Context ctx = new Context();
+            IntSet set = new IntOpenHashSet();
 
-        int startX = chunk.getPos().getStartX();
-        int startZ = chunk.getPos().getStartZ();
+            int startX = chunk.getPos().getStartX();
+            int startZ = chunk.getPos().getStartZ();
 
-        int endX = chunk.getPos().getEndX();
-        int endZ = chunk.getPos().getEndZ();
+            int endX = chunk.getPos().getEndX();
+            int endZ = chunk.getPos().getEndZ();
 
-        // Search for first set of tunnels
-        for (int x = startX; x <= endX; x++) {
-            for (int z = startZ; z <= endZ; z++) {
-                int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - startX, z - startZ);
+            // Search for first set of tunnels
+            for (int x = startX; x <= endX; x++) {
+                for (int z = startZ; z <= endZ; z++) {
+                    int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - startX, z - startZ);
 
-                for (short y = (short) mc.world.getBottomY(); y < height; y++) {
-                    if (isTunnel(ctx, x, y, z)) set.add(pack(x - startX, y, z - startZ));
+                    for (short y = (short) mc.world.getBottomY(); y < height; y++) {
+                        if (isTunnel(ctx, x, y, z)) set.add(pack(x - startX, y, z - startZ));
+                    }
                 }
             }
+
+            // Remove tunnels which are 1 block long
+            IntSet positions = tChunk.getBackBuffer();
+
+            for (IntIterator it = set.iterator(); it.hasNext();) {
+                int packed = it.nextInt();
+                if (isLongEnough(set, packed)) positions.add(packed);
+            }
+
+            tChunk.swap();
         }
+    }
 
-        // Remove tunnels which are 1 block long
-        IntSet positions = new IntOpenHashSet();
+    /**
+     * Searches the blocks around a changed block again. Tunnels next to it read the changed block and the ones next to
+     * those may lose or gain their only neighbour, so a 5x5 area in up to 4 chunks is updated.
+     */
+    private void updateBlock(int bx, int by, int bz) {
+        if (mc.world == null) return;
 
-        for (IntIterator it = set.iterator(); it.hasNext();) {
-            int packed = it.nextInt();
+        int minY = Math.max(by - 2, mc.world.getBottomY());
+        int maxY = by + 1;
 
-            byte x = getPackedX(packed);
-            short y = getPackedY(packed);
-            byte z = getPackedZ(packed);
+        for (int cx = (bx - 2) >> 4; cx <= (bx + 2) >> 4; cx++) {
+            for (int cz = (bz - 2) >> 4; cz <= (bz + 2) >> 4; cz++) {
+                TChunk tChunk;
 
-            if (x == 0 || x == 15 || z == 0 || z == 15) positions.add(packed);
-            else {
-                boolean has = false;
+                synchronized (chunks) {
+                    tChunk = chunks.get(ChunkPos.toLong(cx, cz));
+                }
+
+                if (tChunk == null) continue;
+
+                Chunk chunk = mc.world.getChunk(cx, cz, ChunkStatus.FULL, false);
+                if (chunk == null) continue;
 
-                for (Direction dir : DIRECTIONS) {
-                    if (set.contains(pack(x + dir.getOffsetX(), y, z + dir.getOffsetZ()))) {
-                        has = true;
-                        break;
+                int startX = cx << 4;
+                int startZ = cz << 4;
+
+                updateChunk(chunk, tChunk,
+                    Math.max(bx - 2 - startX, 0), Math.min(bx + 2 - startX, 15),
+                    minY, maxY,
+                    Math.max(bz - 2 - startZ, 0), Math.min(bz + 2 - startZ, 15)
+                );
+            }
+        }
+    }
+
+    /** Updates the area between the given chunk relative coordinates. */
+    private void updateChunk(Chunk chunk, TChunk tChunk, int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        synchronized (tChunk) {
+            // The chunk is still waiting for its first search which will see the new block
+            if (tChunk.positions == null) return;
+
+            Context ctx = new Context();
+            IntSet set = new IntOpenHashSet();
+
+            int startX = chunk.getPos().getStartX();
+            int startZ = chunk.getPos().getStartZ();
+
+            // Search one more block around the area for the neighbours, tunnels on the chunk edges don't need them
+            for (int x = Math.max(minX - 1, 0); x <= Math.min(maxX + 1, 15); x++) {
+                for (int z = Math.max(minZ - 1, 0); z <= Math.min(maxZ + 1, 15); z++) {
+                    int height = Math.min(chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x, z), maxY + 1);
+
+                    for (int y = minY; y < height; y++) {
+                        if (isTunnel(ctx, startX + x, y, startZ + z)) set.add(pack(x, y, z));
                     }
                 }
+            }
+
+            IntSet positions = tChunk.getBackBuffer();
+            positions.addAll(tChunk.positions);
+
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        int packed = pack(x, y, z);
 
-                if (has) positions.add(packed);
+                        if (set.contains(packed) && isLongEnough(set, packed)) positions.add(packed);
+                        else positions.remove(packed);
+                    }
+                }
             }
+
+            tChunk.swap();
+        }
+    }
+
+    private static boolean isLongEnough(IntSet set, int packed) {
+        byte x = getPackedX(packed);
+        short y = getPackedY(packed);
+        byte z = getPackedZ(packed);
+
+        if (x == 0 || x == 15 || z == 0 || z == 15) return true;
+
+        for (Direction dir : DIRECTIONS) {
+            if (set.contains(pack(x + dir.getOffsetX(), y, z + dir.getOffsetZ()))) return true;
         }
 
-        tChunk.positions = positions;
+        return false;
     }
 
     private boolean isTunnel(Context ctx, int x, int y, int z) {
@@ -183,7 +260,7 @@ public class TunnelESP extends Module {
         if (state.isAir()) return false;
         if (!state.getFluidState().isEmpty()) return false;
 
-        return !state.getCollisionShape(mc.world, BP.set(x, y, z)).isEmpty();
+        return !state.getCollisionShape(mc.world, ctx.pos.set(x, y, z)).isEmpty();
     }
 
     private boolean canWalkThrough(Context ctx, int x, int y, int z) {
@@ -192,7 +269,7 @@ public class TunnelESP extends Module {
         if (state.isAir()) return true;
         if (!state.getFluidState().isEmpty()) return false;
 
-        return state.getCollisionShape(mc.world, BP.set(x, y, z)).isEmpty();
+        return state.getCollisionShape(mc.world, ctx.pos.set(x, y, z)).isEmpty();
     }
 
     private boolean canWalkIn(Context ctx, int x, int y, int z) {
@@ -206,18 +283,14 @@ public class TunnelESP extends Module {
     private void onTick(TickEvent.Post event) {
         synchronized (chunks) {
             for (TChunk tChunk : chunks.values()) tChunk.marked = false;
-            int added = 0;
 
             for (Chunk chunk : Utils.chunks(true)) {
                 long key = ChunkPos.toLong(chunk.getPos().x, chunk.getPos().z);
 
                 if (chunks.containsKey(key)) chunks.get(key).marked = true;
-                else if (added < 48) {
+                else {
                     TChunk tChunk = new TChunk(chunk.getPos().x, chunk.getPos().z);
-                    chunks.put(tChunk.getKey(), tChunk);
-
-                    MeteorExecutor.execute(() -> searchChunk(chunk, tChunk));
-                    added++;
+                    if (searchQueue.submit(chunk, c -> searchChunk(c, tChunk), c -> removeChunk(tChunk))) chunks.put(tChunk.getKey(), tChunk);
                 }
             }
 
@@ -225,6 +298,30 @@ public class TunnelESP extends Module {
         }
     }
 
+    /** Forgets a chunk whose search was dropped, so it is submitted again on the next tick if it is still loaded. */
+    private void removeChunk(TChunk tChunk) {
+        synchronized (chunks) {
+            chunks.remove(tChunk.getKey(), tChunk);
+        }
+    }
+
+    @EventHandler
+    private void onBlockUpdate(BlockUpdateEvent event) {
+        // Tunnels only care about blocks changing between air, liquids and solid blocks
+        if (isSolid(event.oldState, event.pos) == isSolid(event.newState, event.pos) && event.oldState.getFluidState().isEmpty() == event.newState.getFluidState().isEmpty()) return;
+
+        // The position is reused by Minecraft so it can't be used on another thread
+        int bx = event.pos.getX();
+        int by = event.pos.getY();
+        int bz = event.pos.getZ();
+
+        searchQueue.execute(() -> updateBlock(bx, by, bz));
+    }
+
+    private boolean isSolid(BlockState state, BlockPos pos) {
+        return !state.isAir() && !state.getCollisionShape(mc.world, pos).isEmpty();
+    }
+
     @EventHandler
     private void onRender3D(Render3DEvent event) {
         synchronized (chunks) {
@@ -256,9 +353,14 @@ public class TunnelESP extends Module {
         return chunk != null && chunk.positions != null && chunk.positions.contains(key);
     }
 
+    /**
+     * Searches write into the back buffer which is swapped with {@link #positions} once it is complete, so rendering
+     * never sees a partially searched chunk. Only one search for a chunk runs at a time, synchronized on the chunk.
+     */
     private class TChunk {
         private final int x, z;
         public IntSet positions;
+        private IntSet back = new IntOpenHashSet();
 
         public boolean marked;
 
@@ -290,17 +392,31 @@ public class TunnelESP extends Module {
                 x += this.x * 16;
                 z += this.z * 16;
 
-                renderer.box(x, y, z, x + 1, y + height.get(), z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
+                renderer.boxes.box(x, y, z, x + 1, y + height.get(), z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
             }
         }
 
         public long getKey() {
             return ChunkPos.toLong(x, z);
         }
+
+        public IntSet getBackBuffer() {
+            back.clear();
+            return back;
+        }
+
+        public void swap() {
+            synchronized (chunks) {
+                IntSet front = positions;
+                positions = back;
+                back = front != null ? front : new IntOpenHashSet();
+            }
+        }
     }
 
     private static class Context {
         private final World world;
+        public final BlockPos.Mutable pos = new BlockPos.Mutable();
 
         private Chunk lastChunk;
 
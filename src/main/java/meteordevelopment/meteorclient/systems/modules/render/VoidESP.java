@@ -166,7 +166,7 @@ public class VoidESP extends Module {
         }
 
         public void render(Render3DEvent event) {
-            event.renderer.box(x, y, z, x + 1, y + 1, z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
+            event.renderer.boxes.box(x, y, z, x + 1, y + 1, z + 1, sideColor.get(), lineColor.get(), shapeMode.get(), excludeDir);
         }
     }
 }
@@ -14,9 +14,6 @@ import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.orbit.EventHandler;
 import net.irisshaders.iris.api.v0.IrisApi;
-import net.minecraft.block.Block;
-
-import java.util.List;
 
 public class WallHack extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
@@ -35,7 +32,7 @@ public class WallHack extends Module {
         .build()
     );
 
-    public final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    public final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("What blocks should be targeted for Wall Hack.")
         .defaultValue()
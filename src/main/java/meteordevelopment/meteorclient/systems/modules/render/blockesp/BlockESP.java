@@ -20,6 +20,7 @@ import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.player.PlayerUtils;
 import meteordevelopment.meteorclient.utils.render.color.RainbowColors;
 import meteordevelopment.meteorclient.utils.render.color.SettingColor;
+import meteordevelopment.meteorclient.utils.world.ChunkScheduler;
 import meteordevelopment.meteorclient.utils.world.Dimension;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
@@ -28,18 +29,15 @@ import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.chunk.Chunk;
 
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BlockESP extends Module {
     private final SettingGroup sgGeneral = settings.getDefaultGroup();
 
     // General
 
-    private final Setting<List<Block>> blocks = sgGeneral.add(new BlockListSetting.Builder()
+    private final BlockListSetting blocks = sgGeneral.add(new BlockListSetting.Builder()
         .name("blocks")
         .description("Blocks to search for.")
         .onChanged(blocks1 -> {
@@ -81,9 +79,14 @@ public class BlockESP extends Module {
 
     private final Long2ObjectMap<ESPChunk> chunks = new Long2ObjectOpenHashMap<>();
     private final Set<ESPGroup> groups = new ReferenceOpenHashSet<>();
-    private final ExecutorService workerThread = Executors.newSingleThreadExecutor();
+    private final ChunkScheduler.Queue workerThread = ChunkScheduler.queue("block-esp", 1024);
+
+    // Rainbow colors change every tick, chunks using them are rebuilt less often than that
+    private static final long RAINBOW_REBUILD_INTERVAL = 100;
 
     private Dimension lastDimension;
+    private int lastConfigHash;
+    private long lastRainbowRebuild;
 
     public BlockESP() {
         super(Categories.Render, "block-esp", "Renders specified blocks through walls.", "search");
@@ -93,7 +96,10 @@ public class BlockESP extends Module {
 
     @Override
     public void onActivate() {
+        workerThread.clear();
+
         synchronized (chunks) {
+            for (ESPChunk chunk : chunks.values()) chunk.destroy();
             chunks.clear();
             groups.clear();
         }
@@ -107,7 +113,10 @@ public class BlockESP extends Module {
 
     @Override
     public void onDeactivate() {
+        workerThread.clear();
+
         synchronized (chunks) {
+            for (ESPChunk chunk : chunks.values()) chunk.destroy();
             chunks.clear();
             groups.clear();
         }
@@ -160,23 +169,26 @@ public class BlockESP extends Module {
     }
 
     private void searchChunk(Chunk chunk) {
-        workerThread.submit(() -> {
-            if (!isActive()) return;
-            ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks.get());
+        workerThread.submit(chunk, this::search);
+    }
 
-            if (schunk.size() > 0) {
-                synchronized (chunks) {
-                    chunks.put(chunk.getPos().toLong(), schunk);
-                    schunk.update();
-
-                    // Update neighbour chunks
-                    updateChunk(chunk.getPos().x - 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x + 1, chunk.getPos().z);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z - 1);
-                    updateChunk(chunk.getPos().x, chunk.getPos().z + 1);
-                }
+    private void search(Chunk chunk) {
+        if (!isActive()) return;
+        ESPChunk schunk = ESPChunk.searchChunk(chunk, blocks);
+
+        if (schunk.size() > 0) {
+            synchronized (chunks) {
+                ESPChunk prevChunk = chunks.put(chunk.getPos().toLong(), schunk);
+                if (prevChunk != null) prevChunk.destroy();
+                schunk.update();
+
+                // Update neighbour chunks
+                updateChunk(chunk.getPos().x - 1, chunk.getPos().z);
+                updateChunk(chunk.getPos().x + 1, chunk.getPos().z);
+                updateChunk(chunk.getPos().x, chunk.getPos().z - 1);
+                updateChunk(chunk.getPos().x, chunk.getPos().z + 1);
             }
-        });
+        }
     }
 
     @EventHandler
@@ -190,11 +202,11 @@ public class BlockESP extends Module {
         int chunkZ = bz >> 4;
         long key = ChunkPos.toLong(chunkX, chunkZ);
 
-        boolean added = blocks.get().contains(event.newState.getBlock()) && !blocks.get().contains(event.oldState.getBlock());
-        boolean removed = !added && !blocks.get().contains(event.newState.getBlock()) && blocks.get().contains(event.oldState.getBlock());
+        boolean added = blocks.contains(event.newState.getBlock()) && !blocks.contains(event.oldState.getBlock());
+        boolean removed = !added && !blocks.contains(event.newState.getBlock()) && blocks.contains(event.oldState.getBlock());
 
         if (added || removed) {
-            workerThread.submit(() -> {
+            workerThread.execute(() -> {
                 synchronized (chunks) {
                     ESPChunk chunk = chunks.get(key);
 
@@ -236,21 +248,36 @@ public class BlockESP extends Module {
 
     @EventHandler
     private void onRender(Render3DEvent event) {
+        int configHash = getConfigHash();
+        boolean configChanged = configHash != lastConfigHash;
+        lastConfigHash = configHash;
+
+        long time = System.currentTimeMillis();
+        boolean rebuildRainbow = time - lastRainbowRebuild >= RAINBOW_REBUILD_INTERVAL;
+        if (rebuildRainbow) lastRainbowRebuild = time;
+
         synchronized (chunks) {
             for (Iterator<ESPChunk> it = chunks.values().iterator(); it.hasNext();) {
                 ESPChunk chunk = it.next();
 
                 if (chunk.shouldBeDeleted()) {
-                    workerThread.submit(() -> {
-                        for (ESPBlock block : chunk.blocks.values()) {
-                            block.group.remove(block, false);
-                            block.loaded = false;
+                    workerThread.execute(() -> {
+                        // Searches and block updates of other chunks change the same groups on other workers
+                        synchronized (chunks) {
+                            for (ESPBlock block : chunk.blocks.values()) {
+                                block.group.remove(block, false);
+                                block.loaded = false;
+                            }
                         }
                     });
 
+                    chunk.destroy();
                     it.remove();
                 }
-                else chunk.render(event);
+                else {
+                    if (configChanged || (rebuildRainbow && chunk.isAnimated())) chunk.markDirty();
+                    chunk.render(event);
+                }
             }
 
             if (tracers.get()) {
@@ -261,6 +288,28 @@ public class BlockESP extends Module {
         }
     }
 
+    private int getConfigHash() {
+        int hash = getConfigHash(defaultBlockConfig.get());
+
+        for (Map.Entry<Block, ESPBlockData> entry : blockConfigs.get().entrySet()) {
+            hash = 31 * hash + (entry.getKey().hashCode() ^ getConfigHash(entry.getValue()));
+        }
+
+        return hash;
+    }
+
+    /** Rainbow colors are left out, they would change the hash and rebuild every chunk each tick. */
+    private static int getConfigHash(ESPBlockData blockData) {
+        int hash = blockData.shapeMode.ordinal();
+        hash = 31 * hash + getColorHash(blockData.lineColor);
+        hash = 31 * hash + getColorHash(blockData.sideColor);
+        return hash;
+    }
+
+    private static int getColorHash(SettingColor color) {
+        return color.rainbow ? 31 * color.a : color.getPacked();
+    }
+
     @Override
     public String getInfoString() {
         return "%s groups".formatted(groups.size());
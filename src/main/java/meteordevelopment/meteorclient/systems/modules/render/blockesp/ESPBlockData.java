@@ -56,6 +56,11 @@ public class ESPBlockData implements ICopyable<ESPBlockData>, ISerializable<ESPB
         changed = true;
     }
 
+    /** Whether the colors that are drawn change every tick on their own. */
+    public boolean isAnimated() {
+        return (shapeMode.lines() && lineColor.rainbow) || (shapeMode.sides() && sideColor.rainbow);
+    }
+
     public void tickRainbow() {
         lineColor.update();
         sideColor.update();
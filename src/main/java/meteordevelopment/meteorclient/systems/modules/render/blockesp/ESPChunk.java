@@ -5,18 +5,17 @@
 
 package meteordevelopment.meteorclient.systems.modules.render.blockesp;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.events.render.Render3DEvent;
-import net.minecraft.block.Block;
-import net.minecraft.block.BlockState;
+import meteordevelopment.meteorclient.renderer.Renderer3D;
+import meteordevelopment.meteorclient.settings.BlockListSetting;
+import meteordevelopment.meteorclient.utils.world.PaletteSearch;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkSectionPos;
-import net.minecraft.world.Heightmap;
 import net.minecraft.world.chunk.Chunk;
 
-import java.util.List;
-
 import static meteordevelopment.meteorclient.MeteorClient.mc;
 import static meteordevelopment.meteorclient.utils.Utils.getRenderDistance;
 
@@ -25,6 +24,9 @@ public class ESPChunk {
     private final int x, z;
     public Long2ObjectMap<ESPBlock> blocks;
 
+    private Renderer3D mesh;
+    private boolean dirty = true, animated;
+
     public ESPChunk(int x, int z) {
         this.x = x;
         this.z = z;
@@ -39,6 +41,7 @@ public class ESPChunk {
 
         if (blocks == null) blocks = new Long2ObjectOpenHashMap<>(64);
         blocks.put(ESPBlock.getKey(blockPos), block);
+        dirty = true;
 
         if (update) block.update();
     }
@@ -51,19 +54,25 @@ public class ESPChunk {
         if (blocks != null) {
             ESPBlock block = blocks.remove(ESPBlock.getKey(blockPos));
             if (block != null) block.group.remove(block);
+
+            dirty = true;
         }
     }
 
     public void update() {
         if (blocks != null) {
             for (ESPBlock block : blocks.values()) block.update();
+            dirty = true;
         }
     }
 
     public void update(int x, int y, int z) {
         if (blocks != null) {
             ESPBlock block = blocks.get(ESPBlock.getKey(x, y, z));
-            if (block != null) block.update();
+            if (block != null) {
+                block.update();
+                dirty = true;
+            }
         }
     }
 
@@ -79,31 +88,58 @@ public class ESPChunk {
         return x > chunkX + viewDist || x < chunkX - viewDist || z > chunkZ + viewDist || z < chunkZ - viewDist;
     }
 
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /** Whether the mesh contains rainbow colors, which are only refreshed by rebuilding it. */
+    public boolean isAnimated() {
+        return animated;
+    }
+
     public void render(Render3DEvent event) {
-        if (blocks != null) {
-            for (ESPBlock block : blocks.values()) block.render(event);
+        if (blocks == null || blocks.isEmpty()) return;
+
+        // The geometry is kept on the GPU and only rebuilt when blocks, neighbours or colors changed
+        if (mesh == null) {
+            mesh = new Renderer3D();
+            mesh.lines.retained = true;
+            mesh.triangles.retained = true;
+        }
+
+        if (dirty) {
+            animated = false;
+
+            mesh.begin();
+            for (ESPBlock block : blocks.values()) {
+                block.render(mesh);
+                if (!animated && block.isAnimated()) animated = true;
+            }
+            mesh.end();
+
+            dirty = false;
         }
+
+        mesh.render(event.matrices);
     }
 
+    public void destroy() {
+        if (mesh == null) return;
+
+        Renderer3D mesh = this.mesh;
+        this.mesh = null;
+        dirty = true;
+
+        if (RenderSystem.isOnRenderThread()) mesh.destroy();
+        else RenderSystem.recordRenderCall(mesh::destroy);
+    }
 
-    public static ESPChunk searchChunk(Chunk chunk, List<Block> blocks) {
+    public static ESPChunk searchChunk(Chunk chunk, BlockListSetting blocks) {
         ESPChunk schunk = new ESPChunk(chunk.getPos().x, chunk.getPos().z);
         if (schunk.shouldBeDeleted()) return schunk;
 
         BlockPos.Mutable blockPos = new BlockPos.Mutable();
-
-        for (int x = chunk.getPos().getStartX(); x <= chunk.getPos().getEndX(); x++) {
-            for (int z = chunk.getPos().getStartZ(); z <= chunk.getPos().getEndZ(); z++) {
-                int height = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE).get(x - chunk.getPos().getStartX(), z - chunk.getPos().getStartZ());
-
-                for (int y = mc.world.getBottomY(); y < height; y++) {
-                    blockPos.set(x, y, z);
-                    BlockState bs = chunk.getBlockState(blockPos);
-
-                    if (blocks.contains(bs.getBlock())) schunk.add(blockPos, false);
-                }
-            }
-        }
+        PaletteSearch.search(chunk, state -> blocks.contains(state.getBlock()), (x, y, z, state) -> schunk.add(blockPos.set(x, y, z), false));
 
         return schunk;
     }
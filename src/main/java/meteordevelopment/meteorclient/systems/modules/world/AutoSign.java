@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.world;
 
 import meteordevelopment.meteorclient.events.game.OpenScreenEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.mixin.AbstractSignEditScreenAccessor;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
@@ -27,7 +28,7 @@ public class AutoSign extends Module {
         text = null;
     }
 
-    @EventHandler
+    @PacketHandler(UpdateSignC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (!(event.packet instanceof UpdateSignC2SPacket)) return;
 
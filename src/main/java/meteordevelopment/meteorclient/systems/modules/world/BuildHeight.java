@@ -6,10 +6,10 @@
 package meteordevelopment.meteorclient.systems.modules.world;
 
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.mixin.BlockHitResultAccessor;
 import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
-import meteordevelopment.orbit.EventHandler;
 import net.minecraft.network.packet.c2s.play.PlayerInteractBlockC2SPacket;
 import net.minecraft.util.math.Direction;
 
@@ -18,7 +18,7 @@ public class BuildHeight extends Module {
         super(Categories.World, "build-height", "Allows you to interact with objects at the build limit.");
     }
 
-    @EventHandler
+    @PacketHandler(PlayerInteractBlockC2SPacket.class)
     private void onSendPacket(PacketEvent.Send event) {
         if (!(event.packet instanceof PlayerInteractBlockC2SPacket p)) return;
         if (mc.world == null) return;
@@ -7,6 +7,7 @@ package meteordevelopment.meteorclient.systems.modules.world;
 
 import meteordevelopment.meteorclient.events.entity.player.PlayerMoveEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
 import meteordevelopment.meteorclient.events.world.CollisionShapeEvent;
 import meteordevelopment.meteorclient.mixininterface.IVec3d;
 import meteordevelopment.meteorclient.settings.BlockListSetting;
@@ -80,7 +81,7 @@ public class Collisions extends Module {
         }
     }
 
-    @EventHandler
+    @PacketHandler({ VehicleMoveC2SPacket.class, PlayerMoveC2SPacket.class })
     private void onPacketSend(PacketEvent.Send event) {
         if (!unloadedChunks.get()) return;
         if (event.packet instanceof VehicleMoveC2SPacket packet) {
@@ -824,10 +824,7 @@ public class HighwayBuilder extends Module {
                     }
                 }
 
-                for (int i = 0; i < b.mc.player.getInventory().main.size(); i++) {
-                    ItemStack itemStack = b.mc.player.getInventory().getStack(i);
-                    if (itemStack.getItem() == Items.OBSIDIAN) obsidianCount += itemStack.getCount();
-                }
+                obsidianCount += InvUtils.find(Items.OBSIDIAN, 0, b.mc.player.getInventory().main.size() - 1).count();
 
                 if (obsidianCount >= minimumObsidian) {
                     stopTimerEnabled = true;
@@ -876,7 +873,7 @@ public class HighwayBuilder extends Module {
                 else {
                     // Place ender chest
                     int slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() == Items.ENDER_CHEST, false);
-                    if (slot == -1 || countItem(b, stack -> stack.getItem().equals(Items.ENDER_CHEST)) <= b.saveEchests.get()) {
+                    if (slot == -1 || InvUtils.find(Items.ENDER_CHEST, 0, b.mc.player.getInventory().main.size() - 1).count() <= b.saveEchests.get()) {
                         stopTimerEnabled = true;
                         stopTimer = 4;
                         return;
@@ -1010,11 +1007,7 @@ public class HighwayBuilder extends Module {
         }
 
         private boolean hasItem(HighwayBuilder b, Item item) {
-            for (int i = 0; i < b.mc.player.getInventory().main.size(); i++) {
-                if (b.mc.player.getInventory().getStack(i).getItem() == item) return true;
-            }
-
-            return false;
+            return InvUtils.find(item, 0, b.mc.player.getInventory().main.size() - 1).found();
         }
 
         protected int countItem(HighwayBuilder b, Predicate<ItemStack> predicate) {
@@ -1104,7 +1097,7 @@ public class HighwayBuilder extends Module {
             int slot = findAndMoveToHotbar(b, itemStack -> itemStack.getItem() instanceof BlockItem blockItem && b.blocksToPlace.get().contains(blockItem.getBlock()), false);
 
             if (slot == -1) {
-                if (!b.mineEnderChests.get() || !hasItem(b, Items.ENDER_CHEST) || countItem(b, stack -> stack.getItem().equals(Items.ENDER_CHEST)) <= b.saveEchests.get()) {
+                if (!b.mineEnderChests.get() || !hasItem(b, Items.ENDER_CHEST) || InvUtils.find(Items.ENDER_CHEST, 0, b.mc.player.getInventory().main.size() - 1).count() <= b.saveEchests.get()) {
                     b.error("Out of blocks to place.");
                 }
                 else b.setState(MineEnderChests);
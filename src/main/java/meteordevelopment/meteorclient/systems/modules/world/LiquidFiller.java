@@ -5,6 +5,9 @@
 
 package meteordevelopment.meteorclient.systems.modules.world;
 
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.settings.*;
 import meteordevelopment.meteorclient.systems.modules.Categories;
@@ -16,6 +19,7 @@ import meteordevelopment.meteorclient.utils.world.BlockIterator;
 import meteordevelopment.meteorclient.utils.world.BlockUtils;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.fluid.Fluid;
 import net.minecraft.fluid.Fluids;
@@ -49,6 +53,9 @@ public class LiquidFiller extends Module {
         .description("The place range.")
         .defaultValue(4)
         .min(0)
+        .onChanged(value -> {
+            if (isActive()) registerDelta();
+        })
         .build()
     );
 
@@ -117,6 +124,11 @@ public class LiquidFiller extends Module {
 
     private final List<BlockPos.Mutable> blocks = new ArrayList<>();
 
+    // Source blocks in range, kept up to date by the block iterator instead of searching every tick
+    private final LongSet sources = new LongOpenHashSet();
+    private final BlockIterator.DeltaCallback onBlock = this::onBlock;
+    private final BlockPos.Mutable blockPos = new BlockPos.Mutable();
+
     private int timer;
 
     public LiquidFiller(){
@@ -126,6 +138,27 @@ public class LiquidFiller extends Module {
     @Override
     public void onActivate() {
         timer = 0;
+        sources.clear();
+
+        registerDelta();
+    }
+
+    @Override
+    public void onDeactivate() {
+        BlockIterator.unregisterDelta(onBlock);
+        sources.clear();
+    }
+
+    private void registerDelta() {
+        // Registering again only updates the range
+        BlockIterator.registerDelta((int) Math.ceil(range.get() + 1), (int) Math.ceil(range.get()), onBlock);
+    }
+
+    private void onBlock(BlockPos pos, BlockState oldState, BlockState newState) {
+        Fluid fluid = newState == null ? null : newState.getFluidState().getFluid();
+
+        if (fluid == Fluids.WATER || fluid == Fluids.LAVA) sources.add(pos.asLong());
+        else sources.remove(pos.asLong());
     }
 
     @EventHandler
@@ -156,44 +189,44 @@ public class LiquidFiller extends Module {
         }
         if (!item.found()) return;
 
-        // Loop blocks around the player
-        BlockIterator.register((int) Math.ceil(range.get()+1), (int) Math.ceil(range.get()), (blockPos, blockState) -> {
+        // Loop source blocks around the player
+        for (LongIterator it = sources.iterator(); it.hasNext();) {
+            blockPos.set(it.nextLong());
+
             boolean toofarSphere = Utils.squaredDistance(pX, pY, pZ, blockPos.getX() + 0.5, blockPos.getY() + 0.5, blockPos.getZ() + 0.5) > rangeSq;
             boolean toofarUniformCube = maxDist(Math.floor(pX), Math.floor(pY), Math.floor(pZ), blockPos.getX(), blockPos.getY(), blockPos.getZ()) >= range.get();
 
             // Check distance
-            if ((toofarSphere && shape.get() == Shape.Sphere) || (toofarUniformCube && shape.get() == Shape.UniformCube)) return;
+            if ((toofarSphere && shape.get() == Shape.Sphere) || (toofarUniformCube && shape.get() == Shape.UniformCube)) continue;
 
             // Check if the block is a source block and set to be filled
-            Fluid fluid = blockState.getFluidState().getFluid();
+            Fluid fluid = mc.world.getBlockState(blockPos).getFluidState().getFluid();
             if ((placeInLiquids.get() == PlaceIn.Both && (fluid != Fluids.WATER && fluid != Fluids.LAVA))
                 || (placeInLiquids.get() == PlaceIn.Water && fluid != Fluids.WATER)
                 || (placeInLiquids.get() == PlaceIn.Lava && fluid != Fluids.LAVA))
-                return;
+                continue;
 
             // Check if the player can place at pos
-            if (!BlockUtils.canPlace(blockPos)) return;
+            if (!BlockUtils.canPlace(blockPos)) continue;
 
             // Add block
             blocks.add(blockPos.mutableCopy());
-        });
-
-        BlockIterator.after(() -> {
-            // Sort blocks
-            if (sortMode.get() == SortMode.TopDown || sortMode.get() == SortMode.BottomUp)
-                blocks.sort(Comparator.comparingDouble(value -> value.getY() * (sortMode.get() == SortMode.BottomUp ? 1 : -1)));
-            else if (sortMode.get() != SortMode.None)
-                blocks.sort(Comparator.comparingDouble(value -> Utils.squaredDistance(pX, pY, pZ, value.getX() + 0.5, value.getY() + 0.5, value.getZ() + 0.5) * (sortMode.get() == SortMode.Closest ? 1 : -1)));
-
-            // Place and clear place positions
-            int count = 0;
-            for (BlockPos pos : blocks) {
-                if (count >= maxBlocksPerTick.get()) break;
-                BlockUtils.place(pos, item, rotate.get(), 0, true);
-                count++;
-            }
-            blocks.clear();
-        });
+        }
+
+        // Sort blocks
+        if (sortMode.get() == SortMode.TopDown || sortMode.get() == SortMode.BottomUp)
+            blocks.sort(Comparator.comparingDouble(value -> value.getY() * (sortMode.get() == SortMode.BottomUp ? 1 : -1)));
+        else if (sortMode.get() != SortMode.None)
+            blocks.sort(Comparator.comparingDouble(value -> Utils.squaredDistance(pX, pY, pZ, value.getX() + 0.5, value.getY() + 0.5, value.getZ() + 0.5) * (sortMode.get() == SortMode.Closest ? 1 : -1)));
+
+        // Place and clear place positions
+        int count = 0;
+        for (BlockPos pos : blocks) {
+            if (count >= maxBlocksPerTick.get()) break;
+            BlockUtils.place(pos, item, rotate.get(), 0, true);
+            count++;
+        }
+        blocks.clear();
     }
 
     public enum ListMode {
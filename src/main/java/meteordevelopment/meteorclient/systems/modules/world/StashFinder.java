@@ -8,7 +8,11 @@ package meteordevelopment.meteorclient.systems.modules.world;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
 import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
 import meteordevelopment.meteorclient.gui.GuiTheme;
 import meteordevelopment.meteorclient.gui.WindowScreen;
@@ -23,6 +27,7 @@ import meteordevelopment.meteorclient.systems.modules.Categories;
 import meteordevelopment.meteorclient.systems.modules.Module;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.meteorclient.utils.render.MeteorToast;
+import meteordevelopment.meteorclient.utils.world.ChunkScheduler;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.block.entity.*;
 import net.minecraft.item.Items;
@@ -30,10 +35,18 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class StashFinder extends Module {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -80,7 +93,9 @@ public class StashFinder extends Module {
         .build()
     );
 
-    public List<Chunk> chunks = new ArrayList<>();
+    public final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final ChunkScheduler.Queue searchQueue = ChunkScheduler.queue("stash-finder", 256);
+    private Storage storage;
 
     public StashFinder() {
         super(Categories.World, "stash-finder", "Searches loaded chunks for storage blocks. Saves to <your minecraft folder>/meteor-client");
@@ -88,7 +103,40 @@ public class StashFinder extends Module {
 
     @Override
     public void onActivate() {
-        load();
+        if (Utils.canUpdate()) openStorage();
+    }
+
+    @Override
+    public void onDeactivate() {
+        searchQueue.clear();
+    }
+
+    @EventHandler
+    private void onGameJoined(GameJoinedEvent event) {
+        openStorage();
+    }
+
+    @EventHandler
+    private void onGameLeft(GameLeftEvent event) {
+        searchQueue.clear();
+    }
+
+    private void openStorage() {
+        // The found stashes stay listed and editable while the module is off, until another world is searched
+        File folder = new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName());
+        if (storage != null && storage.folder.equals(folder)) return;
+
+        if (storage != null) storage.close();
+        chunks.clear();
+
+        Storage storage = new Storage(folder);
+        this.storage = storage;
+
+        // Chunks found while the files were being read are newer than the saved ones
+        storage.load(loaded -> mc.execute(() -> {
+            if (this.storage != storage) return;
+            for (Chunk chunk : loaded) chunks.putIfAbsent(chunk.chunkPos.toLong(), chunk);
+        }));
     }
 
     @EventHandler
@@ -98,9 +146,15 @@ public class StashFinder extends Module {
         double chunkZAbs = Math.abs(event.chunk().getPos().z * 16);
         if (Math.sqrt(chunkXAbs * chunkXAbs + chunkZAbs * chunkZAbs) < minimumDistance.get()) return;
 
-        Chunk chunk = new Chunk(event.chunk().getPos());
+        // The block entity map is only safe to read on this thread, count them on a worker
+        List<BlockEntity> blockEntities = new ArrayList<>(event.chunk().getBlockEntities().values());
+        searchQueue.submit(event.chunk(), c -> countStorages(c.getPos(), blockEntities));
+    }
 
-        for (BlockEntity blockEntity : event.chunk().getBlockEntities().values()) {
+    private void countStorages(ChunkPos pos, List<BlockEntity> blockEntities) {
+        Chunk chunk = new Chunk(pos);
+
+        for (BlockEntity blockEntity : blockEntities) {
             if (!storageBlocks.get().contains(blockEntity.getType())) continue;
 
             if (blockEntity instanceof ChestBlockEntity) chunk.chests++;
@@ -112,24 +166,22 @@ public class StashFinder extends Module {
             else if (blockEntity instanceof HopperBlockEntity) chunk.hoppers++;
         }
 
-        if (chunk.getTotal() >= minimumStorageCount.get()) {
-            Chunk prevChunk = null;
-            int i = chunks.indexOf(chunk);
-
-            if (i < 0) chunks.add(chunk);
-            else prevChunk = chunks.set(i, chunk);
-
-            saveJson();
-            saveCsv();
+        if (chunk.getTotal() >= minimumStorageCount.get()) mc.execute(() -> {
+            if (isActive()) addChunk(chunk);
+        });
+    }
 
-            if (sendNotifications.get() && (!chunk.equals(prevChunk) || !chunk.countsEqual(prevChunk))) {
-                switch (notificationMode.get()) {
-                    case Chat -> info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
-                    case Toast -> mc.getToastManager().add(new MeteorToast(Items.CHEST, title, "Found Stash!"));
-                    case Both -> {
-                        info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
-                        mc.getToastManager().add(new MeteorToast(Items.CHEST, title, "Found Stash!"));
-                    }
+    private void addChunk(Chunk chunk) {
+        Chunk prevChunk = chunks.put(chunk.chunkPos.toLong(), chunk);
+        if (storage != null) storage.put(chunk);
+
+        if (sendNotifications.get() && (!chunk.equals(prevChunk) || !chunk.countsEqual(prevChunk))) {
+            switch (notificationMode.get()) {
+                case Chat -> info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
+                case Toast -> mc.getToastManager().add(new MeteorToast(Items.CHEST, title, "Found Stash!"));
+                case Both -> {
+                    info("Found stash at (highlight)%s(default), (highlight)%s(default).", chunk.x, chunk.z);
+                    mc.getToastManager().add(new MeteorToast(Items.CHEST, title, "Found Stash!"));
                 }
             }
         }
@@ -137,9 +189,6 @@ public class StashFinder extends Module {
 
     @Override
     public WWidget getWidget(GuiTheme theme) {
-        // Sort
-        chunks.sort(Comparator.comparingInt(value -> -value.getTotal()));
-
         WVerticalList list = theme.verticalList();
 
         // Clear
@@ -150,6 +199,7 @@ public class StashFinder extends Module {
 
         clear.action = () -> {
             chunks.clear();
+            if (storage != null) storage.clear();
             table.clear();
         };
 
@@ -160,7 +210,11 @@ public class StashFinder extends Module {
     }
 
     private void fillTable(GuiTheme theme, WTable table) {
-        for (Chunk chunk : chunks) {
+        // Sort
+        List<Chunk> sorted = new ArrayList<>(chunks.values());
+        sorted.sort(Comparator.comparingInt(value -> -value.getTotal()));
+
+        for (Chunk chunk : sorted) {
             table.add(theme.label("Pos: " + chunk.x + ", " + chunk.z));
             table.add(theme.label("Total: " + chunk.getTotal()));
 
@@ -172,12 +226,11 @@ public class StashFinder extends Module {
 
             WMinus delete = table.add(theme.minus()).widget();
             delete.action = () -> {
-                if (chunks.remove(chunk)) {
+                if (chunks.remove(chunk.chunkPos.toLong()) != null) {
                     table.clear();
                     fillTable(theme, table);
 
-                    saveJson();
-                    saveCsv();
+                    if (storage != null) storage.remove(chunk.chunkPos);
                 }
             };
 
@@ -185,89 +238,6 @@ public class StashFinder extends Module {
         }
     }
 
-    private void load() {
-        boolean loaded = false;
-
-        // Try to load json
-        File file = getJsonFile();
-        if (file.exists()) {
-            try {
-                FileReader reader = new FileReader(file);
-                chunks = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
-                reader.close();
-
-                for (Chunk chunk : chunks) chunk.calculatePos();
-
-                loaded = true;
-            } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
-            }
-        }
-
-        // Try to load csv
-        file = getCsvFile();
-        if (!loaded && file.exists()) {
-            try {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                reader.readLine();
-
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String[] values = line.split(" ");
-                    Chunk chunk = new Chunk(new ChunkPos(Integer.parseInt(values[0]), Integer.parseInt(values[1])));
-
-                    chunk.chests = Integer.parseInt(values[2]);
-                    chunk.shulkers = Integer.parseInt(values[3]);
-                    chunk.enderChests = Integer.parseInt(values[4]);
-                    chunk.furnaces = Integer.parseInt(values[5]);
-                    chunk.dispensersDroppers = Integer.parseInt(values[6]);
-                    chunk.hoppers = Integer.parseInt(values[7]);
-
-                    chunks.add(chunk);
-                }
-
-                reader.close();
-            } catch (Exception ignored) {
-                if (chunks == null) chunks = new ArrayList<>();
-            }
-        }
-    }
-
-    private void saveCsv() {
-        try {
-            File file = getCsvFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
-
-            writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
-            for (Chunk chunk : chunks) chunk.write(writer);
-
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void saveJson() {
-        try {
-            File file = getJsonFile();
-            file.getParentFile().mkdirs();
-            Writer writer = new FileWriter(file);
-            GSON.toJson(chunks, writer);
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private File getJsonFile() {
-        return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.json");
-    }
-
-    private File getCsvFile() {
-        return new File(new File(new File(MeteorClient.FOLDER, "stashes"), Utils.getFileWorldName()), "stashes.csv");
-    }
-
     @Override
     public String getInfoString() {
         return String.valueOf(chunks.size());
@@ -327,6 +297,262 @@ public class StashFinder extends Module {
         }
     }
 
+    /**
+     * Owns the stash files of one world. Changes are appended to a journal on a background thread and folded into the
+     * json and csv files once no new stash was found for a while, so the client thread never waits on the disk.
+     */
+    private static class Storage {
+        private static final long COMPACT_DELAY = 10;
+        private static final int MAX_JOURNAL_ENTRIES = 256;
+
+        private static ScheduledExecutorService executor;
+
+        private final File folder;
+
+        // Only accessed on the executor thread
+        private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+        private Writer journal;
+        private int journalEntries;
+        private ScheduledFuture<?> compaction;
+
+        public Storage(File folder) {
+            this.folder = folder;
+
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(task -> {
+                    Thread thread = new Thread(task);
+                    thread.setDaemon(true);
+                    thread.setName("Meteor-StashFinder-IO");
+                    return thread;
+                });
+            }
+        }
+
+        public void load(Consumer<List<Chunk>> callback) {
+            executor.execute(() -> {
+                if (!readJson()) readCsv();
+                replayJournal();
+
+                callback.accept(new ArrayList<>(chunks.values()));
+                if (journalEntries > 0) scheduleCompaction();
+            });
+        }
+
+        public void put(Chunk chunk) {
+            executor.execute(() -> {
+                chunks.put(chunk.chunkPos.toLong(), chunk);
+                append("+ " + chunk.chunkPos.x + " " + chunk.chunkPos.z + " " + chunk.chests + " " + chunk.barrels + " " + chunk.shulkers + " " + chunk.enderChests + " " + chunk.furnaces + " " + chunk.dispensersDroppers + " " + chunk.hoppers);
+            });
+        }
+
+        public void remove(ChunkPos pos) {
+            executor.execute(() -> {
+                chunks.remove(pos.toLong());
+                append("- " + pos.x + " " + pos.z);
+            });
+        }
+
+        public void clear() {
+            executor.execute(() -> {
+                chunks.clear();
+                append("*");
+            });
+        }
+
+        /** Writes everything that is still pending, the storage must not be used afterwards. */
+        public void close() {
+            executor.execute(() -> {
+                if (journalEntries > 0) compact();
+                closeJournal();
+            });
+        }
+
+        // Journal
+
+        private void append(String line) {
+            try {
+                if (journal == null) {
+                    folder.mkdirs();
+                    journal = new BufferedWriter(new FileWriter(getJournalFile(), true));
+                }
+
+                journal.write(line);
+                journal.write('\n');
+                journal.flush();
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to write to the stash journal", e);
+            }
+
+            if (++journalEntries >= MAX_JOURNAL_ENTRIES) compact();
+            else scheduleCompaction();
+        }
+
+        private void replayJournal() {
+            File file = getJournalFile();
+            if (!file.exists()) return;
+
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    String[] values = line.split(" ");
+
+                    // A line cut off by a crash is skipped
+                    try {
+                        switch (values[0]) {
+                            case "+" -> {
+                                Chunk chunk = new Chunk(new ChunkPos(Integer.parseInt(values[1]), Integer.parseInt(values[2])));
+
+                                chunk.chests = Integer.parseInt(values[3]);
+                                chunk.barrels = Integer.parseInt(values[4]);
+                                chunk.shulkers = Integer.parseInt(values[5]);
+                                chunk.enderChests = Integer.parseInt(values[6]);
+                                chunk.furnaces = Integer.parseInt(values[7]);
+                                chunk.dispensersDroppers = Integer.parseInt(values[8]);
+                                chunk.hoppers = Integer.parseInt(values[9]);
+
+                                chunks.put(chunk.chunkPos.toLong(), chunk);
+                            }
+                            case "-" -> chunks.remove(ChunkPos.toLong(Integer.parseInt(values[1]), Integer.parseInt(values[2])));
+                            case "*" -> chunks.clear();
+                        }
+                    } catch (RuntimeException ignored) {}
+
+                    journalEntries++;
+                }
+            } catch (IOException e) {
+                MeteorClient.LOG.error("Failed to read the stash journal", e);
+            }
+        }
+
+        private void closeJournal() {
+            if (journal == null) return;
+
+            try {
+                journal.close();
+            } catch (IOException ignored) {}
+
+            journal = null;
+        }
+
+        // Compaction
+
+        private void scheduleCompaction() {
+            if (compaction != null) compaction.cancel(false);
+            compaction = executor.schedule(this::compact, COMPACT_DELAY, TimeUnit.SECONDS);
+        }
+
+        private void compact() {
+            if (compaction != null) {
+                compaction.cancel(false);
+                compaction = null;
+            }
+
+            List<Chunk> list = new ArrayList<>(chunks.values());
+            list.sort(Comparator.comparingInt(value -> -value.getTotal()));
+
+            try {
+                folder.mkdirs();
+
+                write(getJsonFile(), writer -> GSON.toJson(list, writer));
+                write(getCsvFile(), writer -> {
+                    writer.write("X,Z,Chests,Barrels,Shulkers,EnderChests,Furnaces,DispensersDroppers,Hoppers\n");
+                    for (Chunk chunk : list) chunk.write(writer);
+                });
+            } catch (IOException e) {
+                // Keep the journal, the next compaction will try again
+                MeteorClient.LOG.error("Failed to save stashes", e);
+                return;
+            }
+
+            closeJournal();
+            getJournalFile().delete();
+            journalEntries = 0;
+        }
+
+        private void write(File file, FileWriteAction action) throws IOException {
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+            try (Writer writer = new BufferedWriter(new FileWriter(temp))) {
+                action.write(writer);
+            }
+
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        // Snapshot
+
+        private boolean readJson() {
+            File file = getJsonFile();
+            if (!file.exists()) return false;
+
+            try (Reader reader = new BufferedReader(new FileReader(file))) {
+                List<Chunk> list = GSON.fromJson(reader, new TypeToken<List<Chunk>>() {}.getType());
+                if (list == null) return false;
+
+                for (Chunk chunk : list) {
+                    chunk.calculatePos();
+                    chunks.put(chunk.chunkPos.toLong(), chunk);
+                }
+
+                return true;
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to read stashes.json", e);
+                return false;
+            }
+        }
+
+        private void readCsv() {
+            File file = getCsvFile();
+            if (!file.exists()) return;
+
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                reader.readLine();
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] values = line.split(",");
+
+                    // The csv contains the block coordinates of the chunk centers
+                    Chunk chunk = new Chunk(new ChunkPos(Integer.parseInt(values[0]) >> 4, Integer.parseInt(values[1]) >> 4));
+
+                    chunk.chests = Integer.parseInt(values[2]);
+                    chunk.barrels = Integer.parseInt(values[3]);
+                    chunk.shulkers = Integer.parseInt(values[4]);
+                    chunk.enderChests = Integer.parseInt(values[5]);
+                    chunk.furnaces = Integer.parseInt(values[6]);
+                    chunk.dispensersDroppers = Integer.parseInt(values[7]);
+                    chunk.hoppers = Integer.parseInt(values[8]);
+
+                    chunks.put(chunk.chunkPos.toLong(), chunk);
+                }
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to read stashes.csv", e);
+            }
+        }
+
+        private File getJsonFile() {
+            return new File(folder, "stashes.json");
+        }
+
+        private File getCsvFile() {
+            return new File(folder, "stashes.csv");
+        }
+
+        private File getJournalFile() {
+            return new File(folder, "stashes.journal");
+        }
+
+        @FunctionalInterface
+        private interface FileWriteAction {
+            void write(Writer writer) throws IOException;
+        }
+    }
+
     private static class ChunkScreen extends WindowScreen {
         private final Chunk chunk;
 
@@ -5,50 +5,144 @@
 
 package meteordevelopment.meteorclient.utils;
 
+import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.addons.AddonManager;
 import meteordevelopment.meteorclient.addons.MeteorAddon;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * Runs {@link PreInit} and {@link PostInit} tasks. Tasks are read from the {@value #MANIFEST} files the init annotation
+ * processor generates at build time, addons that don't ship one are scanned with {@link Reflections} instead.
+ */
 public class ReflectInit {
-    private static final List<Reflections> reflections = new ArrayList<>();
+    private static final String MANIFEST = "META-INF/meteor-init.txt";
+
+    private static final List<Consumer<Class<? extends Annotation>>> sources = new ArrayList<>();
 
     private ReflectInit() {
     }
 
     public static void registerPackages() {
+        Map<MeteorAddon, List<Task>> manifests = readManifests();
+
         for (MeteorAddon addon : AddonManager.ADDONS) {
             try {
-                add(addon);
+                add(addon, manifests.get(addon));
             } catch (AbstractMethodError e) {
                 throw new RuntimeException("Addon \"%s\" is too old and cannot be ran.".formatted(addon.name), e);
             }
         }
     }
 
-    private static void add(MeteorAddon addon) {
+    private static void add(MeteorAddon addon, List<Task> manifest) {
+        if (manifest != null) {
+            sources.add(annotation -> init(manifest, annotation));
+            return;
+        }
+
         String pkg = addon.getPackage();
         if (pkg == null || pkg.isBlank()) return;
-        reflections.add(new Reflections(pkg, Scanners.MethodsAnnotated));
+
+        Reflections reflection = new Reflections(pkg, Scanners.MethodsAnnotated);
+        sources.add(annotation -> init(reflection, annotation));
     }
 
     public static void init(Class<? extends Annotation> annotation) {
-        for (Reflections reflection : reflections) {
-            Set<Method> initTasks = reflection.getMethodsAnnotatedWith(annotation);
-            if (initTasks == null) return;
+        for (Consumer<Class<? extends Annotation>> source : sources) {
+            source.accept(annotation);
+        }
+    }
+
+    // Manifest
+
+    /** Reads every manifest on the classpath and assigns each task to the addon with the longest package containing it. */
+    private static Map<MeteorAddon, List<Task>> readManifests() {
+        Map<MeteorAddon, List<Task>> manifests = new HashMap<>();
+
+        try {
+            Enumeration<URL> urls = ReflectInit.class.getClassLoader().getResources(MANIFEST);
+
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    for (String line; (line = reader.readLine()) != null; ) {
+                        line = line.trim();
+                        if (line.isEmpty() || line.startsWith("#")) continue;
+
+                        String[] split = line.split(" ");
+                        if (split.length != 3) continue;
+
+                        MeteorAddon addon = getOwner(split[1]);
+                        if (addon != null) manifests.computeIfAbsent(addon, a -> new ArrayList<>()).add(new Task(split[0], split[1], split[2]));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            MeteorClient.LOG.error("Failed to read init manifests, falling back to scanning.", e);
+            manifests.clear();
+        }
+
+        return manifests;
+    }
+
+    private static MeteorAddon getOwner(String className) {
+        MeteorAddon owner = null;
+        int ownerLength = -1;
+
+        for (MeteorAddon addon : AddonManager.ADDONS) {
+            String pkg = addon.getPackage();
+            if (pkg == null || pkg.isBlank() || !className.startsWith(pkg + ".")) continue;
+
+            if (pkg.length() > ownerLength) {
+                owner = addon;
+                ownerLength = pkg.length();
+            }
+        }
 
-            Map<Class<?>, List<Method>> byClass = initTasks.stream().collect(Collectors.groupingBy(Method::getDeclaringClass));
-            Set<Method> left = new HashSet<>(initTasks);
+        return owner;
+    }
 
-            for (Method m; (m = left.stream().findAny().orElse(null)) != null; ) {
-                reflectInit(m, annotation, left, byClass);
+    /** Manifest tasks are already sorted by the annotation processor. */
+    private static void init(List<Task> manifest, Class<? extends Annotation> annotation) {
+        for (Task task : manifest) {
+            if (!task.annotation().equals(annotation.getName())) continue;
+
+            Method method;
+            try {
+                method = Class.forName(task.owner()).getMethod(task.method());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Init task '%s.%s' from the init manifest doesn't exist, is the manifest outdated?".formatted(task.owner(), task.method()), e);
             }
+
+            invoke(method, annotation);
+        }
+    }
+
+    // Scanning
+
+    private static void init(Reflections reflection, Class<? extends Annotation> annotation) {
+        Set<Method> initTasks = reflection.getMethodsAnnotatedWith(annotation);
+        if (initTasks == null) return;
+
+        Map<Class<?>, List<Method>> byClass = initTasks.stream().collect(Collectors.groupingBy(Method::getDeclaringClass));
+        Set<Method> left = new HashSet<>(initTasks);
+
+        for (Method m; (m = left.stream().findAny().orElse(null)) != null; ) {
+            reflectInit(m, annotation, left, byClass);
         }
     }
 
@@ -63,6 +157,10 @@ public class ReflectInit {
             }
         }
 
+        invoke(task, annotation);
+    }
+
+    private static void invoke(Method task, Class<? extends Annotation> annotation) {
         try {
             task.invoke(null);
         } catch (IllegalAccessException | InvocationTargetException e) {
@@ -81,4 +179,6 @@ public class ReflectInit {
             default -> new Class<?>[]{};
         };
     }
+
+    private record Task(String annotation, String owner, String method) {}
 }
@@ -48,15 +48,14 @@ public class DamageUtils {
     // Explosion damage
 
     /**
-     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, as soon:tm: it will be the
-     * target of optimizations to make it more performant.
+     * It is recommended to use this {@link RaycastFactory} unless you implement custom behaviour, exposure calculated with
+     * it or with {@link #getOverridingHitFactory(BlockPos, BlockState)} is cached by {@link ExposureCache}.
      * @see BlockView#raycast(RaycastContext)
      */
     public static final RaycastFactory HIT_FACTORY = (context, blockPos) -> {
-        BlockState blockState = mc.world.getBlockState(blockPos);
-        if (blockState.getBlock().getBlastResistance() < 600) return null;
+        if (!ExposureCache.isBlastResistant(blockPos)) return null;
 
-        return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
+        return mc.world.getBlockState(blockPos).getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
     };
 
     public static float crystalDamage(LivingEntity target, Vec3d targetPos, Box targetBox, Vec3d explosionPos, RaycastFactory raycastFactory) {
@@ -80,7 +79,21 @@ public class DamageUtils {
         double modDistance = PlayerUtils.distance(targetPos.x, targetPos.y, targetPos.z, explosionPos.x, explosionPos.y, explosionPos.z);
         if (modDistance > power) return 0f;
 
-        double exposure = getExposure(explosionPos, targetBox, raycastFactory);
+        return explosionDamage(target, modDistance, power, getExposure(explosionPos, targetBox, raycastFactory));
+    }
+
+    /**
+     * Same as {@link #explosionDamage(LivingEntity, Vec3d, Box, Vec3d, float, RaycastFactory)} with an exposure that was
+     * already calculated, for example on another thread with {@link #calculateExposure(Vec3d, Box, RaycastFactory)}.
+     */
+    public static float explosionDamage(LivingEntity target, Vec3d targetPos, Vec3d explosionPos, float power, float exposure) {
+        double modDistance = PlayerUtils.distance(targetPos.x, targetPos.y, targetPos.z, explosionPos.x, explosionPos.y, explosionPos.z);
+        if (modDistance > power) return 0f;
+
+        return explosionDamage(target, modDistance, power, exposure);
+    }
+
+    private static float explosionDamage(LivingEntity target, double modDistance, float power, double exposure) {
         double impact = (1 - (modDistance / power)) * exposure;
         float damage = (int) ((impact * impact + impact) / 2 * 7 * 12 + 1);
 
@@ -126,16 +139,7 @@ public class DamageUtils {
     }
 
     public static RaycastFactory getOverridingHitFactory(BlockPos overridePos, BlockState overrideState) {
-        return (context, blockPos) -> {
-            BlockState blockState;
-            if (blockPos.equals(overridePos)) blockState = overrideState;
-            else {
-                blockState = mc.world.getBlockState(blockPos);
-                if (blockState.getBlock().getBlastResistance() < 600) return null;
-            }
-
-            return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
-        };
+        return new OverridingHitFactory(overridePos, overrideState);
     }
 
     // Sword damage
@@ -336,10 +340,18 @@ public class DamageUtils {
         return Math.max(damage, 0);
     }
 
+    private static float getExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
+        if (raycastFactory == HIT_FACTORY) return ExposureCache.getExposure(source, box, null, null, raycastFactory);
+        if (raycastFactory instanceof OverridingHitFactory factory) return ExposureCache.getExposure(source, box, factory.overridePos, factory.overrideState, raycastFactory);
+
+        return calculateExposure(source, box, raycastFactory);
+    }
+
     /**
+     * Uncached exposure of the box to the source, only reads the world through the raycast factory.
      * @see net.minecraft.world.explosion.ExplosionImpl#calculateReceivedDamage(Vec3d, Entity)
      */
-    private static float getExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
+    public static float calculateExposure(Vec3d source, Box box, RaycastFactory raycastFactory) {
         double xDiff = box.maxX - box.minX;
         double yDiff = box.maxY - box.minY;
         double zDiff = box.maxZ - box.minZ;
@@ -392,6 +404,20 @@ public class DamageUtils {
 
     public record ExposureRaycastContext(Vec3d start, Vec3d end) {}
 
+    private record OverridingHitFactory(BlockPos overridePos, BlockState overrideState) implements RaycastFactory {
+        @Override
+        public BlockHitResult apply(ExposureRaycastContext context, BlockPos blockPos) {
+            BlockState blockState;
+            if (blockPos.equals(overridePos)) blockState = overrideState;
+            else {
+                if (!ExposureCache.isBlastResistant(blockPos)) return null;
+                blockState = mc.world.getBlockState(blockPos);
+            }
+
+            return blockState.getCollisionShape(mc.world, blockPos).raycast(context.start(), context.end(), blockPos);
+        }
+    }
+
     @FunctionalInterface
     public interface RaycastFactory extends BiFunction<ExposureRaycastContext, BlockPos, BlockHitResult> {}
 }
@@ -0,0 +1,239 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.entity.EntityAddedEvent;
+import meteordevelopment.meteorclient.events.entity.EntityRemovedEvent;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * One snapshot of the world's entities per tick, bucketed by type and by a uniform horizontal grid, so modules don't
+ * each have to iterate {@link ClientWorld#getEntities()} and re-run the same filters.
+ * The snapshot is rebuilt lazily on the first query after a tick started or an entity was added or removed.
+ */
+public class EntitySnapshot {
+    private static final int CELL_SHIFT = 4;
+    // Entities can move after the snapshot was taken, search cells this many blocks further out
+    private static final double CELL_PADDING = 2;
+
+    // Every rebuild creates new collections so loops over a previous snapshot are not affected
+    private static List<Entity> all = new ArrayList<>();
+    private static List<PlayerEntity> players = new ArrayList<>();
+    private static List<LivingEntity> living = new ArrayList<>();
+    private static Reference2ObjectMap<EntityType<?>, List<Entity>> byType = new Reference2ObjectOpenHashMap<>();
+    private static Long2ObjectMap<List<Entity>> grid = new Long2ObjectOpenHashMap<>();
+    private static Reference2DoubleMap<Entity> distances = new Reference2DoubleOpenHashMap<>();
+
+    private static ClientWorld world;
+    private static boolean dirty = true, livingSorted;
+
+    private EntitySnapshot() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(EntitySnapshot.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onEntityAdded(EntityAddedEvent event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onEntityRemoved(EntityRemovedEvent event) {
+        dirty = true;
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        clear();
+        world = null;
+        dirty = true;
+    }
+
+    // Queries
+
+    /** All entities in the world, the list must not be modified. */
+    public static List<Entity> getAll() {
+        update();
+        return all;
+    }
+
+    /** All players in the world including the client player, the list must not be modified. */
+    public static List<PlayerEntity> getPlayers() {
+        update();
+        return players;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Entity> List<T> getByType(EntityType<T> type) {
+        update();
+        return (List<T>) byType.getOrDefault(type, Collections.emptyList());
+    }
+
+    /** Squared distance to the client player when the snapshot was taken. */
+    public static double getSquaredDistance(Entity entity) {
+        update();
+
+        double distance = distances.getOrDefault(entity, -1);
+        return distance >= 0 ? distance : entity.squaredDistanceTo(mc.player);
+    }
+
+    /** Adds all entities within the range of the client player that match the predicate to the list. */
+    public static <T extends Entity> void getWithin(double range, Class<T> klass, Predicate<T> predicate, List<T> list) {
+        update();
+        if (mc.player == null) return;
+
+        double x = mc.player.getX(), z = mc.player.getZ();
+        double rangeSq = range * range;
+
+        forCells(x - range, z - range, x + range, z + range, entity -> {
+            if (klass.isInstance(entity) && entity.squaredDistanceTo(mc.player) <= rangeSq) {
+                T t = klass.cast(entity);
+                if (predicate.test(t)) list.add(t);
+            }
+        });
+    }
+
+    public static void getPlayersWithin(double range, Predicate<PlayerEntity> predicate, List<PlayerEntity> list) {
+        getWithin(range, PlayerEntity.class, predicate, list);
+    }
+
+    /** Adds all entities whose bounding box intersects the box and that match the predicate to the list. */
+    public static <T extends Entity> void getInBox(Box box, Class<T> klass, Predicate<T> predicate, List<T> list) {
+        update();
+
+        forCells(box.minX, box.minZ, box.maxX, box.maxZ, entity -> {
+            if (klass.isInstance(entity) && entity.getBoundingBox().intersects(box)) {
+                T t = klass.cast(entity);
+                if (predicate.test(t)) list.add(t);
+            }
+        });
+    }
+
+    /** Adds the k living entities closest to the client player that match the predicate to the list, closest first. */
+    public static void getNearest(int k, Predicate<LivingEntity> predicate, List<LivingEntity> list) {
+        update();
+
+        if (!livingSorted) {
+            living.sort(Comparator.comparingDouble(distances::getDouble));
+            livingSorted = true;
+        }
+
+        int found = 0;
+
+        for (LivingEntity entity : living) {
+            if (found >= k) break;
+
+            if (!entity.isRemoved() && predicate.test(entity)) {
+                list.add(entity);
+                found++;
+            }
+        }
+    }
+
+    // Snapshot
+
+    private static void update() {
+        if (!dirty && world == mc.world) return;
+
+        clear();
+        world = mc.world;
+        dirty = false;
+
+        if (world == null || mc.player == null) return;
+
+        for (Entity entity : world.getEntities()) {
+            if (entity == null || entity.isRemoved()) continue;
+
+            all.add(entity);
+            distances.put(entity, entity.squaredDistanceTo(mc.player));
+
+            if (entity instanceof LivingEntity livingEntity) living.add(livingEntity);
+            if (entity instanceof PlayerEntity player) players.add(player);
+
+            byType.computeIfAbsent(entity.getType(), type -> new ArrayList<>()).add(entity);
+            grid.computeIfAbsent(cellKey(MathHelper.floor(entity.getX()) >> CELL_SHIFT, MathHelper.floor(entity.getZ()) >> CELL_SHIFT), key -> new ArrayList<>()).add(entity);
+        }
+    }
+
+    private static void clear() {
+        int size = all.size();
+
+        all = new ArrayList<>(size);
+        players = new ArrayList<>();
+        living = new ArrayList<>(living.size());
+        byType = new Reference2ObjectOpenHashMap<>();
+        grid = new Long2ObjectOpenHashMap<>();
+        distances = new Reference2DoubleOpenHashMap<>(size);
+
+        livingSorted = false;
+    }
+
+    private static void forCells(double minX, double minZ, double maxX, double maxZ, Consumer<Entity> consumer) {
+        int minCellX = MathHelper.floor(minX - CELL_PADDING) >> CELL_SHIFT;
+        int minCellZ = MathHelper.floor(minZ - CELL_PADDING) >> CELL_SHIFT;
+        int maxCellX = MathHelper.floor(maxX + CELL_PADDING) >> CELL_SHIFT;
+        int maxCellZ = MathHelper.floor(maxZ + CELL_PADDING) >> CELL_SHIFT;
+
+        // Large areas are cheaper to scan linearly than cell by cell
+        if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) > grid.size()) {
+            for (Entity entity : all) {
+                if (!entity.isRemoved()) consumer.accept(entity);
+            }
+
+            return;
+        }
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Entity> cell = grid.get(cellKey(cx, cz));
+                if (cell == null) continue;
+
+                for (Entity entity : cell) {
+                    if (!entity.isRemoved()) consumer.accept(entity);
+                }
+            }
+        }
+    }
+
+    private static long cellKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
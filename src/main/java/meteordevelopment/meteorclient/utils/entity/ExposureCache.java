@@ -0,0 +1,263 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.entity;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.meteorclient.utils.world.PaletteSearch;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.ChunkSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Per-tick caches behind {@link DamageUtils#HIT_FACTORY} and the overriding hit factories. Blast resistant blocks around
+ * the player are kept in one bitset per chunk section built from the section palette, explosions that have no blast
+ * resistant block between them and the target skip raycasting entirely and calculated exposures are remembered until
+ * the next tick or block update. Reads the world, so it must only be used on the client thread.
+ */
+public class ExposureCache {
+    public static final float BLAST_RESISTANCE = 600;
+
+    // Sections cached around the player in every direction, explosions never reach further than 12 blocks
+    private static final int RADIUS = 2, SIZE = RADIUS * 2 + 1;
+    private static final int MAX_EXPOSURES = 1 << 16;
+    private static final long[] EMPTY = new long[64];
+
+    private static final Map<Key, Float> exposures = new ConcurrentHashMap<>();
+    private static volatile Region region;
+
+    private ExposureCache() {
+    }
+
+    @PreInit
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(ExposureCache.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        region = null;
+        exposures.clear();
+    }
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        // Only blast resistant blocks take part in exposure calculations
+        if (!isBlastResistant(event.oldState) && !isBlastResistant(event.newState)) return;
+
+        Region region = ExposureCache.region;
+        if (region != null) region.invalidate(event.pos.getX() >> 4, event.pos.getY() >> 4, event.pos.getZ() >> 4);
+
+        exposures.clear();
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        Region region = ExposureCache.region;
+        if (region != null) region.invalidateColumn(event.chunk().getPos().x, event.chunk().getPos().z);
+
+        exposures.clear();
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        region = null;
+        exposures.clear();
+    }
+
+    public static boolean isBlastResistant(BlockState state) {
+        return state.getBlock().getBlastResistance() >= BLAST_RESISTANCE;
+    }
+
+    public static boolean isBlastResistant(BlockPos pos) {
+        long[] mask = region().mask(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        if (mask == null) return isBlastResistant(mc.world.getBlockState(pos));
+
+        return isSet(mask, pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Cached version of the exposure calculation, the override replaces the block state at one position like
+     * {@link DamageUtils#getOverridingHitFactory(BlockPos, BlockState)} does.
+     */
+    static float getExposure(Vec3d source, Box box, @Nullable BlockPos overridePos, @Nullable BlockState overrideState, DamageUtils.RaycastFactory raycastFactory) {
+        // Overriding a block with one that blocks explosions the same way changes nothing, share results with the default factory
+        if (overridePos != null && isRedundant(overridePos, overrideState)) {
+            overridePos = null;
+            overrideState = null;
+            raycastFactory = DamageUtils.HIT_FACTORY;
+        }
+
+        // Callers reuse mutable vectors, the key has to copy the coordinates
+        Key key = new Key(
+            source.x, source.y, source.z,
+            box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ,
+            overridePos == null ? null : overridePos.toImmutable(), overrideState
+        );
+
+        Float cached = exposures.get(key);
+        if (cached != null) return cached;
+
+        float exposure;
+        if (isClear(source, box, overridePos, overrideState)) exposure = 1;
+        else exposure = DamageUtils.calculateExposure(source, box, raycastFactory);
+
+        if (exposures.size() >= MAX_EXPOSURES) exposures.clear();
+        exposures.put(key, exposure);
+
+        return exposure;
+    }
+
+    private static boolean isRedundant(BlockPos pos, BlockState state) {
+        BlockState current = mc.world.getBlockState(pos);
+        return current == state || (!isBlastResistant(current) && !isBlastResistant(state));
+    }
+
+    /** Whether no ray between the source and any sample point of the box can cross a blast resistant block. */
+    private static boolean isClear(Vec3d source, Box box, @Nullable BlockPos overridePos, @Nullable BlockState overrideState) {
+        // Sample points are shifted by up to half a step on the x and z axes and rays are extended slightly at both ends
+        Box area = box.union(new Box(source, source)).expand(0.5, 1.0E-6, 0.5);
+
+        int minX = MathHelper.floor(area.minX), minY = MathHelper.floor(area.minY), minZ = MathHelper.floor(area.minZ);
+        int maxX = MathHelper.floor(area.maxX), maxY = MathHelper.floor(area.maxY), maxZ = MathHelper.floor(area.maxZ);
+
+        boolean override = overridePos != null
+            && overridePos.getX() >= minX && overridePos.getX() <= maxX
+            && overridePos.getY() >= minY && overridePos.getY() <= maxY
+            && overridePos.getZ() >= minZ && overridePos.getZ() <= maxZ;
+
+        if (override && isBlastResistant(overrideState)) return false;
+
+        Region region = region();
+
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                    long[] mask = region.mask(sx, sy, sz);
+
+                    if (mask == EMPTY) continue;
+                    if (mask == null) return false;
+
+                    for (int y = Math.max(minY, sy << 4); y <= Math.min(maxY, (sy << 4) + 15); y++) {
+                        for (int z = Math.max(minZ, sz << 4); z <= Math.min(maxZ, (sz << 4) + 15); z++) {
+                            for (int x = Math.max(minX, sx << 4); x <= Math.min(maxX, (sx << 4) + 15); x++) {
+                                if (!isSet(mask, x, y, z)) continue;
+                                if (override && x == overridePos.getX() && y == overridePos.getY() && z == overridePos.getZ()) continue;
+
+                                return false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isSet(long[] mask, int x, int y, int z) {
+        int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        return (mask[index >> 6] & (1L << index)) != 0;
+    }
+
+    private static Region region() {
+        Region region = ExposureCache.region;
+        ClientWorld world = mc.world;
+
+        if (region == null || region.world != world) {
+            BlockPos center = mc.player != null ? mc.player.getBlockPos() : BlockPos.ORIGIN;
+
+            region = new Region(world, ChunkSectionPos.getSectionCoord(center.getX()), ChunkSectionPos.getSectionCoord(center.getY()), ChunkSectionPos.getSectionCoord(center.getZ()));
+            ExposureCache.region = region;
+        }
+
+        return region;
+    }
+
+    private static class Region {
+        private final ClientWorld world;
+        private final int originX, originY, originZ;
+        private final AtomicReferenceArray<long[]> masks = new AtomicReferenceArray<>(SIZE * SIZE * SIZE);
+
+        public Region(ClientWorld world, int centerX, int centerY, int centerZ) {
+            this.world = world;
+            this.originX = centerX - RADIUS;
+            this.originY = centerY - RADIUS;
+            this.originZ = centerZ - RADIUS;
+        }
+
+        /** @return the bitset of blast resistant blocks, {@link #EMPTY} if there are none or null if the section is not cached */
+        public long[] mask(int sectionX, int sectionY, int sectionZ) {
+            int i = index(sectionX, sectionY, sectionZ);
+            if (i == -1) return null;
+
+            long[] mask = masks.get(i);
+
+            if (mask == null) {
+                mask = build(sectionX, sectionY, sectionZ);
+                if (mask == null) return null;
+
+                masks.set(i, mask);
+            }
+
+            return mask;
+        }
+
+        public void invalidate(int sectionX, int sectionY, int sectionZ) {
+            int i = index(sectionX, sectionY, sectionZ);
+            if (i != -1) masks.set(i, null);
+        }
+
+        public void invalidateColumn(int sectionX, int sectionZ) {
+            for (int y = 0; y < SIZE; y++) invalidate(sectionX, originY + y, sectionZ);
+        }
+
+        private int index(int sectionX, int sectionY, int sectionZ) {
+            int x = sectionX - originX, y = sectionY - originY, z = sectionZ - originZ;
+            if (x < 0 || x >= SIZE || y < 0 || y >= SIZE || z < 0 || z >= SIZE) return -1;
+
+            return (y * SIZE + z) * SIZE + x;
+        }
+
+        private long[] build(int sectionX, int sectionY, int sectionZ) {
+            if (world == null || !world.getChunkManager().isChunkLoaded(sectionX, sectionZ)) return null;
+
+            ChunkSection[] sections = world.getChunk(sectionX, sectionZ).getSectionArray();
+            int i = world.sectionCoordToIndex(sectionY);
+            if (i < 0 || i >= sections.length) return EMPTY;
+
+            ChunkSection section = sections[i];
+            if (section == null || section.isEmpty()) return EMPTY;
+
+            long[] mask = PaletteSearch.mask(section, ExposureCache::isBlastResistant);
+            return mask != null ? mask : EMPTY;
+        }
+    }
+
+    private record Key(
+        double x, double y, double z,
+        double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+        @Nullable BlockPos overridePos, @Nullable BlockState overrideState
+    ) {}
+}
@@ -41,7 +41,7 @@ public class TargetUtils {
     public static void getList(List<Entity> targetList, Predicate<Entity> isGood, SortPriority sortPriority, int maxCount) {
         targetList.clear();
 
-        for (Entity entity : mc.world.getEntities()) {
+        for (Entity entity : EntitySnapshot.getAll()) {
             if (entity != null && isGood.test(entity)) targetList.add(entity);
         }
 
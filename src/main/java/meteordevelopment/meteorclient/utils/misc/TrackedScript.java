@@ -0,0 +1,195 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.misc;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import meteordevelopment.starscript.Script;
+import meteordevelopment.starscript.Section;
+import meteordevelopment.starscript.utils.StarscriptError;
+import meteordevelopment.starscript.value.Value;
+import meteordevelopment.starscript.value.ValueMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A script that remembers which {@link MeteorStarscript} globals it read and only runs again once one of them changed.
+ * While tracked scripts run or check for changes, globals are evaluated at most once per tick and shared between them,
+ * everything else still calls the original suppliers. Scripts calling functions that aren't known to be pure run every
+ * time, and all scripts run again when a global is added or replaced.
+ */
+public class TrackedScript {
+    private static final Set<String> PURE_FUNCTIONS = Set.of("round", "roundToString", "floor", "ceil", "abs", "pad", "toUpper", "toLower", "contains", "replace");
+
+    private static final Set<ValueMap> wrappedMaps = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private static int tick;
+    private static int version;
+    private static Recording recording;
+
+    public final Script script;
+
+    private Section section;
+    private Dependency[] dependencies;
+    private Value[] values;
+    private int runVersion;
+    private boolean alwaysRun;
+
+    public TrackedScript(Script script) {
+        this.script = script;
+    }
+
+    @PreInit(dependencies = MeteorStarscript.class)
+    public static void init() {
+        MeteorClient.EVENT_BUS.subscribe(TrackedScript.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onTick(TickEvent.Pre event) {
+        tick++;
+    }
+
+    /**
+     * Runs the script if it never ran or one of the globals it read changed.
+     * @return true if the script ran, the section returned by {@link #getSection()} is a new one
+     */
+    public boolean update() {
+        wrapGlobals();
+
+        if (section != null && !alwaysRun && !changed()) return false;
+
+        Recording previous = recording;
+        Recording current = new Recording();
+        recording = current;
+
+        try {
+            section = MeteorStarscript.ss.run(script);
+        }
+        catch (StarscriptError e) {
+            section = null;
+            throw e;
+        }
+        finally {
+            recording = previous;
+        }
+
+        dependencies = current.dependencies.toArray(new Dependency[0]);
+        values = current.values.toArray(new Value[0]);
+        alwaysRun = current.impure;
+
+        // Globals wrapped during the run were read by it, don't count them as new for this script
+        runVersion = version;
+
+        return true;
+    }
+
+    public Section getSection() {
+        return section;
+    }
+
+    private boolean changed() {
+        // The script could have read a global that didn't exist or wasn't wrapped yet
+        if (runVersion != version) return true;
+
+        for (int i = 0; i < dependencies.length; i++) {
+            if (!same(dependencies[i].getCached(), values[i])) return true;
+        }
+
+        // Reading the dependencies can wrap new keys of nested maps
+        return runVersion != version;
+    }
+
+    private static boolean same(Value a, Value b) {
+        if (a == b) return true;
+
+        // Maps created by the supplier on every call, like item stacks, always count as changed
+        if (a.isMap() || b.isMap()) return a.isMap() && b.isMap() && a.getMap() == b.getMap();
+
+        return a.getClass() == b.getClass() && a.toString().equals(b.toString());
+    }
+
+    // Globals
+
+    /**
+     * Wraps global suppliers so reads can be recorded, addons can register new globals at any point so this is checked
+     * before every update. Nested maps are wrapped when their parent is read, without calling any supplier here.
+     */
+    private static void wrapGlobals() {
+        wrap(MeteorStarscript.ss.getGlobals(), "");
+    }
+
+    private static void wrap(ValueMap map, String prefix) {
+        // Maps created on every call are already counted as changed, only new keys in known maps are
+        boolean known = !wrappedMaps.add(map);
+
+        for (String key : new ArrayList<>(map.keys())) {
+            Supplier<Value> supplier = map.getRaw(key);
+            if (supplier == null || supplier instanceof Dependency) continue;
+
+            map.set(key, new Dependency(prefix + key, supplier));
+            if (known) version++;
+        }
+    }
+
+    private static class Dependency implements Supplier<Value> {
+        private final String name;
+        private final Supplier<Value> supplier;
+
+        private Value value;
+        private int tick = -1;
+
+        public Dependency(String name, Supplier<Value> supplier) {
+            this.name = name;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public Value get() {
+            // Only tracked scripts share cached values
+            if (recording == null) return supplier.get();
+
+            Value value = getCached();
+            recording.add(this, value);
+
+            return value;
+        }
+
+        public Value getCached() {
+            if (tick != TrackedScript.tick || value == null) {
+                value = supplier.get();
+                tick = TrackedScript.tick;
+
+                // Keys can be added to or replaced in nested maps at any time
+                if (value.isMap()) wrap(value.getMap(), name + ".");
+            }
+
+            return value;
+        }
+    }
+
+    private static class Recording {
+        private final List<Dependency> dependencies = new ArrayList<>();
+        private final List<Value> values = new ArrayList<>();
+        private boolean impure;
+
+        public void add(Dependency dependency, Value value) {
+            if (dependencies.contains(dependency)) return;
+
+            dependencies.add(dependency);
+            values.add(value);
+
+            if (value.isFunction() && !PURE_FUNCTIONS.contains(dependency.name)) impure = true;
+        }
+    }
+}
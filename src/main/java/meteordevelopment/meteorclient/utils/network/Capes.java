@@ -15,8 +15,8 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.Identifier;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static meteordevelopment.meteorclient.MeteorClient.mc;
@@ -24,6 +24,7 @@ import static meteordevelopment.meteorclient.MeteorClient.mc;
 public class Capes {
     private static final String CAPE_OWNERS_URL = "https://meteorclient.com/api/capeowners";
     private static final String CAPES_URL = "https://meteorclient.com/api/capes";
+    private static final long CAPE_MAX_AGE = TimeUnit.DAYS.toMillis(1);
 
     private static final Map<UUID, String> OWNERS = new HashMap<>();
     private static final Map<String, String> URLS = new HashMap<>();
@@ -104,7 +105,7 @@ public class Capes {
             Cape cape = TEXTURES.get(capeName);
             if (cape == null) return null;
 
-            if (cape.isDownloaded()) return cape.getIdentifier();
+            if (cape.isDownloaded() && TextureCache.touch(cape.getKey())) return cape.getIdentifier();
 
             cape.download();
             return null;
@@ -139,10 +140,9 @@ public class Capes {
             if (downloaded || downloading || retryTimer > 0) return;
             downloading = true;
 
-            MeteorExecutor.execute(() -> {
-                try {
-                    String url = URLS.get(name);
-                    if (url == null) {
+            TextureCache.fetch(getKey(), CAPE_MAX_AGE, () -> URLS.get(name)).thenAccept(data -> {
+                if (data == null) {
+                    if (!URLS.containsKey(name)) {
                         synchronized (TO_REMOVE) {
                             TO_REMOVE.add(this);
                             downloading = false;
@@ -150,35 +150,51 @@ public class Capes {
                         }
                     }
 
-                    InputStream in = Http.get(url).sendInputStream();
-                    if (in == null) {
-                        synchronized (TO_RETRY) {
-                            TO_RETRY.add(this);
-                            retryTimer = 10 * 20;
-                            downloading = false;
-                            return;
-                        }
+                    synchronized (TO_RETRY) {
+                        TO_RETRY.add(this);
+                        retryTimer = 10 * 20;
+                        downloading = false;
+                        return;
                     }
+                }
 
-                    img = NativeImage.read(in);
+                try {
+                    img = NativeImage.read(data);
 
                     synchronized (TO_REGISTER) {
                         TO_REGISTER.add(this);
                     }
                 } catch (IOException e) {
                     e.printStackTrace();
+                    downloading = false;
                 }
             });
         }
 
         public void register() {
+            long size = (long) img.getWidth() * img.getHeight() * 4;
+
             mc.getTextureManager().registerTexture(identifier, new NativeImageBackedTexture(img));
             img = null;
 
+            TextureCache.track(getKey(), size, () -> mc.execute(this::unload));
+
             downloading = false;
             downloaded = true;
         }
 
+        /** Called when the texture cache needs the memory back, the cape is loaded from disk again the next time it is needed. */
+        private void unload() {
+            if (!downloaded) return;
+
+            mc.getTextureManager().destroyTexture(identifier);
+            downloaded = false;
+        }
+
+        private String getKey() {
+            return "cape/" + name;
+        }
+
         public boolean tick() {
             if (retryTimer > 0) {
                 retryTimer--;
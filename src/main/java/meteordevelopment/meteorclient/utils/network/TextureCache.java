@@ -0,0 +1,216 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.network;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloaded images like player heads and capes, stored on disk so they survive restarts.
+ * <p>
+ * Every entry remembers its URL, ETag and expiry time. Entries that haven't expired are read from disk without
+ * contacting the server, expired ones are revalidated with {@code If-None-Match} and served from disk if the server
+ * can't be reached. Downloads run on a small pool so only a few requests are in flight at once, and concurrent requests
+ * for the same key share one download.
+ * <p>
+ * Textures created from the data can be {@link #track(String, long, Runnable) tracked}, the least recently used ones are
+ * released once they take up more than {@link #MEMORY_BUDGET} bytes.
+ */
+public class TextureCache {
+    private static final File FOLDER = new File(MeteorClient.FOLDER, "cache");
+    private static final int MAX_DOWNLOADS = 4;
+    private static final long MEMORY_BUDGET = 32L * 1024 * 1024;
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(MAX_DOWNLOADS, new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(@NotNull Runnable task) {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.setName("Meteor-Textures-" + threadNumber.getAndIncrement());
+            return thread;
+        }
+    });
+
+    private static final Map<String, CompletableFuture<byte[]>> PENDING = new ConcurrentHashMap<>();
+
+    private static final LinkedHashMap<String, Loaded> LOADED = new LinkedHashMap<>(16, 0.75f, true);
+    private static long loadedBytes;
+
+    private TextureCache() {
+    }
+
+    /**
+     * Returns the data stored under the key, downloading it if it isn't on disk or expired. The URL is only requested
+     * when a download is needed, it may block and return null if it is unknown.
+     * @param maxAge how long the data is used without asking the server again, in milliseconds, unless the server sends its own {@code max-age}
+     * @return a future completing with the data or null if it couldn't be loaded
+     */
+    public static CompletableFuture<byte[]> fetch(String key, long maxAge, Supplier<String> url) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        CompletableFuture<byte[]> pending = PENDING.putIfAbsent(key, future);
+        if (pending != null) return pending;
+
+        EXECUTOR.execute(() -> {
+            try {
+                future.complete(load(key, maxAge, url));
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Failed to load cached texture {}.", key, e);
+                future.complete(null);
+            } finally {
+                PENDING.remove(key, future);
+            }
+        });
+
+        return future;
+    }
+
+    private static byte[] load(String key, long maxAge, Supplier<String> url) {
+        File file = getFile(key);
+        Entry entry = read(file);
+
+        if (entry != null && entry.expires() > System.currentTimeMillis()) return entry.data();
+
+        String u = url.get();
+        if (u == null) return entry != null ? entry.data() : null;
+
+        Http.Request request = Http.get(u).exceptionHandler(e -> MeteorClient.LOG.warn("Could not download {}: {}", u, e.getMessage()));
+        if (entry != null && entry.etag() != null && u.equals(entry.url())) request.header("If-None-Match", entry.etag());
+
+        HttpResponse<InputStream> res = request.sendInputStreamResponse();
+
+        // The body has to be closed for every status, otherwise the connection is never released
+        try (InputStream in = res.body()) {
+            if (res.statusCode() == 304 && entry != null) {
+                entry = new Entry(u, entry.etag(), getExpiry(res, maxAge), entry.data());
+                write(file, entry);
+
+                return entry.data();
+            }
+
+            if (res.statusCode() == Http.SUCCESS) {
+                entry = new Entry(u, res.headers().firstValue("ETag").orElse(null), getExpiry(res, maxAge), in.readAllBytes());
+                write(file, entry);
+
+                return entry.data();
+            }
+        } catch (Exception e) {
+            MeteorClient.LOG.warn("Could not download {}: {}", u, e.getMessage());
+        }
+
+        // Outdated data is still better than nothing while offline
+        return entry != null ? entry.data() : null;
+    }
+
+    private static long getExpiry(HttpResponse<?> res, long maxAge) {
+        String cacheControl = res.headers().firstValue("Cache-Control").orElse("");
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+
+        if (matcher.find()) {
+            try {
+                maxAge = Long.parseLong(matcher.group(1)) * 1000;
+            } catch (NumberFormatException ignored) {}
+        }
+
+        return System.currentTimeMillis() + maxAge;
+    }
+
+    // Disk
+
+    private static File getFile(String key) {
+        return new File(FOLDER, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".nbt");
+    }
+
+    @Nullable
+    private static Entry read(File file) {
+        if (!file.exists()) return null;
+
+        try {
+            NbtCompound tag = NbtIo.read(file.toPath());
+            if (tag == null) return null;
+
+            return new Entry(
+                tag.getString("url"),
+                tag.contains("etag") ? tag.getString("etag") : null,
+                tag.getLong("expires"),
+                tag.getByteArray("data")
+            );
+        } catch (Exception e) {
+            MeteorClient.LOG.warn("Failed to read cached texture {}.", file.getName());
+            return null;
+        }
+    }
+
+    private static void write(File file, Entry entry) {
+        NbtCompound tag = new NbtCompound();
+
+        tag.putString("url", entry.url());
+        if (entry.etag() != null) tag.putString("etag", entry.etag());
+        tag.putLong("expires", entry.expires());
+        tag.putByteArray("data", entry.data());
+
+        try {
+            FOLDER.mkdirs();
+
+            Path temp = file.toPath().resolveSibling(file.getName() + ".tmp");
+            NbtIo.write(tag, temp);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            MeteorClient.LOG.error("Failed to save cached texture {}.", file.getName(), e);
+        }
+    }
+
+    private record Entry(String url, @Nullable String etag, long expires, byte[] data) {}
+
+    // Memory
+
+    /** Registers a texture that was created from cached data, {@code release} is called once it is evicted. */
+    public static synchronized void track(String key, long bytes, Runnable release) {
+        Loaded previous = LOADED.put(key, new Loaded(bytes, release));
+        if (previous != null) loadedBytes -= previous.bytes();
+
+        loadedBytes += bytes;
+
+        for (Iterator<Map.Entry<String, Loaded>> it = LOADED.entrySet().iterator(); it.hasNext() && loadedBytes > MEMORY_BUDGET; ) {
+            Map.Entry<String, Loaded> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+
+            it.remove();
+            loadedBytes -= eldest.getValue().bytes();
+            eldest.getValue().release().run();
+        }
+    }
+
+    /** Marks a tracked texture as used, returns false if it isn't loaded anymore. */
+    public static synchronized boolean touch(String key) {
+        return LOADED.get(key) != null;
+    }
+
+    private record Loaded(long bytes, Runnable release) {}
+}
@@ -7,8 +7,10 @@ package meteordevelopment.meteorclient.utils.player;
 
 import meteordevelopment.meteorclient.mixininterface.IClientPlayerInteractionManager;
 import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.slot.SlotActionType;
 
@@ -80,12 +82,17 @@ public class InvUtils {
     }
 
     public static FindItemResult findInHotbar(Item... items) {
-        return findInHotbar(itemStack -> {
-            for (Item item : items) {
-                if (itemStack.getItem() == item) return true;
-            }
-            return false;
-        });
+        if (mc.player == null) return new FindItemResult(0, 0);
+
+        if (testInOffHand(items)) {
+            return new FindItemResult(SlotUtils.OFFHAND, mc.player.getOffHandStack().getCount());
+        }
+
+        if (testInMainHand(items)) {
+            return new FindItemResult(mc.player.getInventory().selectedSlot, mc.player.getMainHandStack().getCount());
+        }
+
+        return find(items, 0, 8);
     }
 
     public static FindItemResult findInHotbar(Predicate<ItemStack> isGood) {
@@ -101,12 +108,49 @@ public class InvUtils {
     }
 
     public static FindItemResult find(Item... items) {
-        return find(itemStack -> {
-            for (Item item : items) {
-                if (itemStack.getItem() == item) return true;
-            }
-            return false;
-        });
+        if (mc.player == null) return new FindItemResult(0, 0);
+        return find(items, 0, mc.player.getInventory().size());
+    }
+
+    public static FindItemResult find(Item item, int start, int end) {
+        return find(new Item[] { item }, start, end);
+    }
+
+    private static FindItemResult find(Item[] items, int start, int end) {
+        if (mc.player == null) return new FindItemResult(0, 0);
+
+        // Empty slots aren't indexed
+        if (!InventoryIndex.isAvailable() || contains(items, Items.AIR)) {
+            return find(itemStack -> contains(items, itemStack.getItem()), start, end);
+        }
+
+        long mask = 0;
+        for (Item item : items) mask |= InventoryIndex.getSlots(item);
+
+        mask &= -1L << start;
+        if (end < 63) mask &= (1L << (end + 1)) - 1;
+
+        int slot = -1, count = 0;
+
+        for (; mask != 0; mask &= mask - 1) {
+            int i = Long.numberOfTrailingZeros(mask);
+            ItemStack stack = mc.player.getInventory().getStack(i);
+
+            // The stack could have been used up since the index was built
+            if (!contains(items, stack.getItem())) continue;
+
+            if (slot == -1) slot = i;
+            count += stack.getCount();
+        }
+
+        return new FindItemResult(slot, count);
+    }
+
+    private static boolean contains(Item[] items, Item item) {
+        for (Item i : items) {
+            if (i == item) return true;
+        }
+        return false;
     }
 
     public static FindItemResult find(Predicate<ItemStack> isGood) {
@@ -132,11 +176,16 @@ public class InvUtils {
     }
 
     public static FindItemResult findFastestTool(BlockState state) {
+        if (InventoryIndex.isAvailable()) return new FindItemResult(InventoryIndex.getFastestTool(state), 1);
+        return new FindItemResult(findFastestTool(mc.player.getInventory(), state), 1);
+    }
+
+    static int findFastestTool(PlayerInventory inventory, BlockState state) {
         float bestScore = 1;
         int slot = -1;
 
         for (int i = 0; i < 9; i++) {
-            ItemStack stack = mc.player.getInventory().getStack(i);
+            ItemStack stack = inventory.getStack(i);
             if (!stack.isSuitableFor(state)) continue;
 
             float score = stack.getMiningSpeedMultiplier(state);
@@ -146,7 +195,7 @@ public class InvUtils {
             }
         }
 
-        return new FindItemResult(slot, 1);
+        return slot;
     }
 
     // Interactions
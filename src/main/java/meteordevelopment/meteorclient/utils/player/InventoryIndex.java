@@ -0,0 +1,119 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.player;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.packets.ContainerSlotUpdateEvent;
+import meteordevelopment.meteorclient.events.packets.InventoryEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import meteordevelopment.orbit.EventPriority;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Slots of every item in the player inventory, used by {@link InvUtils} instead of scanning all slots. The index is
+ * rebuilt after inventory packets and slot clicks, which is how items get into the inventory. Items also leave it in
+ * place when they are used up, so every slot returned by {@link #getSlots(Item)} still has to be checked. The fastest
+ * hotbar tool for each block state is kept until the next rebuild as well. Only available on the client thread.
+ */
+public class InventoryIndex {
+    private static final Reference2LongMap<Item> slots = new Reference2LongOpenHashMap<>();
+    private static final Reference2IntMap<BlockState> tools = new Reference2IntOpenHashMap<>();
+
+    private static PlayerInventory inventory;
+    private static boolean valid;
+
+    private InventoryIndex() {
+    }
+
+    @PreInit
+    public static void init() {
+        tools.defaultReturnValue(-2);
+
+        MeteorClient.EVENT_BUS.subscribe(InventoryIndex.class);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onInventory(InventoryEvent event) {
+        invalidate();
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST + 1)
+    private static void onContainerSlotUpdate(ContainerSlotUpdateEvent event) {
+        // Only the cursor stack changed
+        if (event.packet.getSyncId() == -1) return;
+
+        invalidate();
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        invalidate();
+        inventory = null;
+    }
+
+    /** Called after anything that can add items to the inventory without an inventory packet, like slot clicks. */
+    public static void invalidate() {
+        valid = false;
+    }
+
+    /** Whether the index can be used right now, rebuilding it if needed. */
+    public static boolean isAvailable() {
+        if (mc.player == null || !mc.isOnThread()) return false;
+
+        if (!valid || inventory != mc.player.getInventory()) rebuild();
+        return true;
+    }
+
+    /**
+     * Bitmask of the inventory indices that held the item when the index was built. Call {@link #isAvailable()} first.
+     */
+    public static long getSlots(Item item) {
+        return slots.getLong(item);
+    }
+
+    /**
+     * Returns the hotbar slot with the fastest tool for the state, the same one as {@link InvUtils#findFastestTool(BlockState)}
+     * or -1 if there is none. Call {@link #isAvailable()} first.
+     */
+    public static int getFastestTool(BlockState state) {
+        int slot = tools.getInt(state);
+
+        // Tools can only break in the meantime, look again if this one did
+        if (slot == -2 || (slot != -1 && inventory.getStack(slot).isEmpty())) {
+            slot = InvUtils.findFastestTool(inventory, state);
+            tools.put(state, slot);
+        }
+
+        return slot;
+    }
+
+    private static void rebuild() {
+        slots.clear();
+        tools.clear();
+
+        inventory = mc.player.getInventory();
+
+        for (int i = 0; i < inventory.size(); i++) {
+            ItemStack stack = inventory.getStack(i);
+            if (stack.isEmpty()) continue;
+
+            slots.put(stack.getItem(), slots.getLong(stack.getItem()) | (1L << i));
+        }
+
+        valid = true;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.render;
+
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.renderer.text.FontInfo;
+import meteordevelopment.meteorclient.renderer.text.SystemFontFace;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the font info of every system font file keyed by its path, size and modification time, so only files that
+ * are new or changed since the last launch have to be opened and parsed. Files that aren't valid fonts are remembered
+ * as well.
+ */
+public class FontIndex {
+    private static final File FILE = new File(MeteorClient.FOLDER, "font-index.nbt");
+    private static final int VERSION = 1;
+
+    private FontIndex() {
+    }
+
+    /** Walks all system font directories and returns the fonts found. Blocks on disk I/O, don't call it on the render thread. */
+    public static List<SystemFontFace> scan() {
+        Map<String, Entry> index = read();
+        Map<String, Entry> updated = new LinkedHashMap<>();
+
+        List<File> files = new ArrayList<>();
+        for (String path : FontUtils.getSearchPaths()) collect(new File(path), files);
+
+        List<SystemFontFace> fonts = new ArrayList<>();
+        int parsed = 0;
+
+        for (File file : files) {
+            String path = file.getAbsolutePath();
+            if (updated.containsKey(path)) continue;
+
+            long size = file.length();
+            long modified = file.lastModified();
+
+            Entry entry = index.get(path);
+            if (entry == null || entry.size() != size || entry.modified() != modified) {
+                entry = new Entry(size, modified, FontUtils.getSysFontInfo(file));
+                parsed++;
+            }
+
+            updated.put(path, entry);
+            if (entry.info() != null) fonts.add(new SystemFontFace(entry.info(), file.toPath()));
+        }
+
+        // Removed files only shrink the index
+        if (parsed > 0 || updated.size() != index.size()) write(updated);
+
+        MeteorClient.LOG.info("Found {} system fonts, parsed {} new or changed files.", fonts.size(), parsed);
+        return fonts;
+    }
+
+    private static void collect(File dir, List<File> files) {
+        File[] children = dir.listFiles((file) -> (file.isFile() && file.getName().endsWith(".ttf") || file.isDirectory()));
+        if (children == null) return;
+
+        for (File file : children) {
+            if (file.isDirectory()) collect(file, files);
+            else files.add(file);
+        }
+    }
+
+    private static Map<String, Entry> read() {
+        Map<String, Entry> index = new HashMap<>();
+        if (!FILE.exists()) return index;
+
+        try {
+            NbtCompound tag = NbtIo.read(FILE.toPath());
+            if (tag == null || tag.getInt("version") != VERSION) return index;
+
+            for (NbtElement element : tag.getList("fonts", NbtElement.COMPOUND_TYPE)) {
+                NbtCompound font = (NbtCompound) element;
+
+                FontInfo info = null;
+                if (font.contains("family")) info = new FontInfo(font.getString("family"), FontInfo.Type.valueOf(font.getString("type")));
+
+                index.put(font.getString("path"), new Entry(font.getLong("size"), font.getLong("modified"), info));
+            }
+        } catch (Exception e) {
+            MeteorClient.LOG.error("Failed to read the font index, all system fonts will be parsed again.", e);
+            index.clear();
+        }
+
+        return index;
+    }
+
+    private static void write(Map<String, Entry> index) {
+        NbtList fonts = new NbtList();
+
+        index.forEach((path, entry) -> {
+            NbtCompound font = new NbtCompound();
+
+            font.putString("path", path);
+            font.putLong("size", entry.size());
+            font.putLong("modified", entry.modified());
+
+            if (entry.info() != null) {
+                font.putString("family", entry.info().family());
+                font.putString("type", entry.info().type().name());
+            }
+
+            fonts.add(font);
+        });
+
+        NbtCompound tag = new NbtCompound();
+        tag.putInt("version", VERSION);
+        tag.put("fonts", fonts);
+
+        try {
+            Path temp = FILE.toPath().resolveSibling(FILE.getName() + ".tmp");
+            NbtIo.write(tag, temp);
+            Files.move(temp, FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            MeteorClient.LOG.error("Failed to save the font index.", e);
+        }
+    }
+
+    private record Entry(long size, long modified, @Nullable FontInfo info) {}
+}
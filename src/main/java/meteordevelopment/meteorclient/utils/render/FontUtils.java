@@ -105,43 +105,30 @@ public class FontUtils {
         }
     }
 
-    public static void loadSystem(List<FontFamily> fontList, File dir) {
-        if (!dir.exists() || !dir.isDirectory()) return;
+    public static void loadSystem(List<FontFamily> fontList, List<SystemFontFace> fonts) {
+        for (SystemFontFace fontFace : fonts) {
+            if (isBuiltin(fontFace.info)) continue;
 
-        File[] files = dir.listFiles((file) -> (file.isFile() && file.getName().endsWith(".ttf") || file.isDirectory()));
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                loadSystem(fontList, file);
-                continue;
-            }
-
-            FontInfo fontInfo = FontUtils.getSysFontInfo(file);
-            if (fontInfo == null) continue;
-
-            boolean isBuiltin = false;
-            for (String builtinFont : Fonts.BUILTIN_FONTS) {
-                if (builtinFont.equals(fontInfo.family())) {
-                    isBuiltin = true;
-                    break;
-                }
-            }
-            if (isBuiltin) continue;
-
-            FontFace fontFace = new SystemFontFace(fontInfo, file.toPath());
             if (!addFont(fontList, fontFace)) {
                 MeteorClient.LOG.warn("Failed to load system font {}", fontFace);
             }
         }
     }
 
+    public static boolean isBuiltin(FontInfo fontInfo) {
+        for (String builtinFont : Fonts.BUILTIN_FONTS) {
+            if (builtinFont.equals(fontInfo.family())) return true;
+        }
+
+        return false;
+    }
+
     public static boolean addFont(List<FontFamily> fontList, FontFace font) {
         if (font == null) return false;
 
         FontInfo info = font.info;
 
-        FontFamily family = Fonts.getFamily(info.family());
+        FontFamily family = Fonts.getFamily(fontList, info.family());
         if (family == null) {
             family = new FontFamily(info.family());
             fontList.add(family);
@@ -12,6 +12,7 @@ import org.lwjgl.system.MemoryUtil;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -31,6 +32,43 @@ public class PlayerHeadTexture extends Texture {
             return;
         }
 
+        load(skin);
+    }
+
+    public PlayerHeadTexture(byte[] skinData) {
+        BufferedImage skin;
+        try {
+            skin = ImageIO.read(new ByteArrayInputStream(skinData));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        if (skin != null) load(skin);
+    }
+
+    public PlayerHeadTexture() {
+        try (InputStream inputStream = mc.getResourceManager().getResource(MeteorClient.identifier("textures/steve.png")).get().getInputStream()) {
+            ByteBuffer data = TextureUtil.readResource(inputStream);
+            data.rewind();
+
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                IntBuffer width = stack.mallocInt(1);
+                IntBuffer height = stack.mallocInt(1);
+                IntBuffer comp = stack.mallocInt(1);
+
+                ByteBuffer image = STBImage.stbi_load_from_memory(data, width, height, comp, 3);
+                upload(image);
+                STBImage.stbi_image_free(image);
+            }
+            MemoryUtil.memFree(data);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void load(BufferedImage skin) {
         byte[] head = new byte[8 * 8 * 3];
         int[] pixel = new int[4];
 
@@ -66,27 +104,6 @@ public class PlayerHeadTexture extends Texture {
         needsRotate = true;
     }
 
-    public PlayerHeadTexture() {
-        try (InputStream inputStream = mc.getResourceManager().getResource(MeteorClient.identifier("textures/steve.png")).get().getInputStream()) {
-            ByteBuffer data = TextureUtil.readResource(inputStream);
-            data.rewind();
-
-            try (MemoryStack stack = MemoryStack.stackPush()) {
-                IntBuffer width = stack.mallocInt(1);
-                IntBuffer height = stack.mallocInt(1);
-                IntBuffer comp = stack.mallocInt(1);
-
-                ByteBuffer image = STBImage.stbi_load_from_memory(data, width, height, comp, 3);
-                upload(image);
-                STBImage.stbi_image_free(image);
-            }
-            MemoryUtil.memFree(data);
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
     private void upload(ByteBuffer data) {
         Runnable action = () -> upload(8, 8, data, Texture.Format.RGB, Texture.Filter.Nearest, Texture.Filter.Nearest, false);
         if (RenderSystem.isOnRenderThread()) action.run();
@@ -6,11 +6,16 @@ import meteordevelopment.meteorclient.systems.accounts.TexturesJson;
 import meteordevelopment.meteorclient.systems.accounts.UuidToProfileResponse;
 import meteordevelopment.meteorclient.utils.PostInit;
 import meteordevelopment.meteorclient.utils.network.Http;
+import meteordevelopment.meteorclient.utils.network.TextureCache;
 
 import java.util.Base64;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class PlayerHeadUtils {
+    private static final long HEAD_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
     public static PlayerHeadTexture STEVE_HEAD;
 
     private PlayerHeadUtils() {
@@ -28,6 +33,14 @@ public class PlayerHeadUtils {
         return url != null ? new PlayerHeadTexture(url) : null;
     }
 
+    /** Loads the head through the {@link TextureCache}, skins are looked up again once a day. */
+    public static CompletableFuture<PlayerHeadTexture> fetchHeadAsync(UUID id) {
+        if (id == null) return CompletableFuture.completedFuture(null);
+
+        return TextureCache.fetch("head/" + id, HEAD_MAX_AGE, () -> getSkinUrl(id))
+            .thenApply(data -> data != null ? new PlayerHeadTexture(data) : null);
+    }
+
     public static String getSkinUrl(UUID id) {
         UuidToProfileResponse res2 = Http.get("https://sessionserver.mojang.com/session/minecraft/profile/" + id)
             .exceptionHandler(e -> MeteorClient.LOG.error("Could not contact mojang session servers.", e))
@@ -5,7 +5,15 @@
 
 package meteordevelopment.meteorclient.utils.world;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.BlockUpdateEvent;
+import meteordevelopment.meteorclient.events.world.ChunkDataEvent;
 import meteordevelopment.meteorclient.events.world.TickEvent;
 import meteordevelopment.meteorclient.utils.PreInit;
 import meteordevelopment.meteorclient.utils.Utils;
@@ -13,7 +21,12 @@ import meteordevelopment.meteorclient.utils.misc.Pool;
 import meteordevelopment.orbit.EventHandler;
 import meteordevelopment.orbit.EventPriority;
 import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -33,6 +46,18 @@ public class BlockIterator {
 
     private static boolean disableCurrent;
 
+    // Delta listeners, see registerDelta()
+    private static final List<Delta> deltas = new ArrayList<>();
+
+    private static final Long2ObjectMap<BlockState[]> sections = new Long2ObjectOpenHashMap<>();
+    private static final LongSet dirtySections = new LongOpenHashSet();
+    private static final LongSet dirtyBlocks = new LongOpenHashSet();
+    private static final LongSet unloadedChunks = new LongOpenHashSet();
+
+    private static ClientWorld cachedWorld;
+    private static boolean hasCachedBox;
+    private static int cMinX, cMinY, cMinZ, cMaxX, cMaxY, cMaxZ;
+
     private BlockIterator() {
     }
 
@@ -45,6 +70,8 @@ public class BlockIterator {
     private static void onTick(TickEvent.Pre event) {
         if (!Utils.canUpdate()) return;
 
+        tickDeltas();
+
         int px = mc.player.getBlockX();
         int py = mc.player.getBlockY();
         int pz = mc.player.getBlockZ();
@@ -97,6 +124,36 @@ public class BlockIterator {
         callbacks.add(callback);
     }
 
+    /**
+     * Registers a persistent listener that is only notified about changes inside its range instead of receiving every
+     * block each tick. Blocks entering the range are reported with a {@code null} old state, blocks leaving the range
+     * with a {@code null} new state and block updates with both states set. Blocks of unloaded chunks, of the previous
+     * dimension and of the world that was left also leave the range. The listener stays registered until
+     * {@link #unregisterDelta(DeltaCallback)} is called, registering it again only changes the range.
+     */
+    public static void registerDelta(int horizontalRadius, int verticalRadius, DeltaCallback callback) {
+        for (Delta delta : deltas) {
+            if (delta.callback == callback) {
+                delta.hRadius = horizontalRadius;
+                delta.vRadius = verticalRadius;
+                delta.removed = false;
+                return;
+            }
+        }
+
+        deltas.add(new Delta(callback, horizontalRadius, verticalRadius));
+    }
+
+    /** Registering the listener again afterwards reports every block in its range as entering it again. */
+    public static void unregisterDelta(DeltaCallback callback) {
+        for (Delta delta : deltas) {
+            if (delta.callback == callback) {
+                delta.removed = true;
+                delta.hasBox = false;
+            }
+        }
+    }
+
     public static void disableCurrent() {
         disableCurrent = true;
     }
@@ -105,6 +162,312 @@ public class BlockIterator {
         afterCallbacks.add(callback);
     }
 
+    // Delta
+
+    @EventHandler
+    private static void onBlockUpdate(BlockUpdateEvent event) {
+        if (deltas.isEmpty()) return;
+        dirtyBlocks.add(event.pos.asLong());
+    }
+
+    @EventHandler
+    private static void onChunkData(ChunkDataEvent event) {
+        if (deltas.isEmpty()) return;
+
+        WorldChunk chunk = event.chunk();
+        int bottom = chunk.getBottomSectionCoord();
+
+        for (int i = 0; i < chunk.getSectionArray().length; i++) {
+            dirtySections.add(ChunkSectionPos.asLong(chunk.getPos().x, bottom + i, chunk.getPos().z));
+        }
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        leaveAll();
+        clearCache();
+    }
+
+    /** Tells every delta that all blocks in its range left it. */
+    private static void leaveAll() {
+        for (Delta delta : deltas) {
+            if (delta.hasBox && !delta.removed) forEachCached(delta, delta.minX, delta.minY, delta.minZ, delta.maxX, delta.maxY, delta.maxZ, true);
+            delta.hasBox = false;
+        }
+    }
+
+    /** There is no event for chunk unloads, cached sections of chunks that stopped being loaded are scanned again. */
+    private static void checkUnloadedChunks() {
+        if (!hasCachedBox) return;
+
+        for (int sx = cMinX; sx <= cMaxX; sx++) {
+            for (int sz = cMinZ; sz <= cMaxZ; sz++) {
+                long key = ChunkPos.toLong(sx, sz);
+
+                if (mc.world.getChunkManager().isChunkLoaded(sx, sz)) {
+                    // Loading it again sends chunk data which marks the sections dirty
+                    unloadedChunks.remove(key);
+                }
+                else if (unloadedChunks.add(key)) {
+                    for (int sy = cMinY; sy <= cMaxY; sy++) dirtySections.add(ChunkSectionPos.asLong(sx, sy, sz));
+                }
+            }
+        }
+    }
+
+    private static void tickDeltas() {
+        deltas.removeIf(delta -> delta.removed);
+
+        if (deltas.isEmpty()) {
+            if (hasCachedBox) clearCache();
+            return;
+        }
+
+        // Dimension change, everything inside the old ranges is gone
+        if (cachedWorld != mc.world) {
+            leaveAll();
+            clearCache();
+            cachedWorld = mc.world;
+        }
+
+        checkUnloadedChunks();
+
+        // Apply changes inside the current ranges
+        for (LongIterator it = dirtySections.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            BlockState[] states = sections.get(key);
+            if (states != null) rescanSection(key, states);
+        }
+        dirtySections.clear();
+
+        for (LongIterator it = dirtyBlocks.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            blockPos.set(BlockPos.unpackLongX(key), BlockPos.unpackLongY(key), BlockPos.unpackLongZ(key));
+
+            BlockState[] states = sections.get(ChunkSectionPos.asLong(blockPos.getX() >> 4, blockPos.getY() >> 4, blockPos.getZ() >> 4));
+            if (states == null) continue;
+
+            int i = index(blockPos.getX(), blockPos.getY(), blockPos.getZ());
+            BlockState newState = mc.world.getBlockState(blockPos);
+
+            if (states[i] != newState) {
+                BlockState oldState = states[i];
+                states[i] = newState;
+                dispatch(blockPos, oldState, newState);
+            }
+        }
+        dirtyBlocks.clear();
+
+        // Move ranges with the player
+        int px = mc.player.getBlockX();
+        int py = mc.player.getBlockY();
+        int pz = mc.player.getBlockZ();
+
+        int bottomY = mc.world.getBottomY();
+        int topY = bottomY + mc.world.getHeight() - 1;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (Delta delta : deltas) {
+            delta.nMinX = px - delta.hRadius;
+            delta.nMinY = Math.max(bottomY, py - delta.vRadius);
+            delta.nMinZ = pz - delta.hRadius;
+            delta.nMaxX = px + delta.hRadius;
+            delta.nMaxY = Math.min(topY, py + delta.vRadius);
+            delta.nMaxZ = pz + delta.hRadius;
+
+            minX = Math.min(minX, delta.nMinX);
+            minY = Math.min(minY, delta.nMinY);
+            minZ = Math.min(minZ, delta.nMinZ);
+            maxX = Math.max(maxX, delta.nMaxX);
+            maxY = Math.max(maxY, delta.nMaxY);
+            maxZ = Math.max(maxZ, delta.nMaxZ);
+        }
+
+        if (minY > maxY) return;
+
+        int sMinX = minX >> 4, sMinY = minY >> 4, sMinZ = minZ >> 4;
+        int sMaxX = maxX >> 4, sMaxY = maxY >> 4, sMaxZ = maxZ >> 4;
+
+        // Scan sections that entered the cached volume, the leave pass below still needs the old ones
+        for (int sx = sMinX; sx <= sMaxX; sx++) {
+            for (int sz = sMinZ; sz <= sMaxZ; sz++) {
+                for (int sy = sMinY; sy <= sMaxY; sy++) {
+                    if (hasCachedBox && sx >= cMinX && sx <= cMaxX && sy >= cMinY && sy <= cMaxY && sz >= cMinZ && sz <= cMaxZ) continue;
+
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    BlockState[] states = new BlockState[16 * 16 * 16];
+                    scanSection(sx, sy, sz, states);
+                    sections.put(key, states);
+                }
+            }
+        }
+
+        for (Delta delta : deltas) {
+            if (delta.hasBox) {
+                if (delta.minX == delta.nMinX && delta.minY == delta.nMinY && delta.minZ == delta.nMinZ
+                    && delta.maxX == delta.nMaxX && delta.maxY == delta.nMaxY && delta.maxZ == delta.nMaxZ) continue;
+
+                forEachDifference(delta, delta.minX, delta.minY, delta.minZ, delta.maxX, delta.maxY, delta.maxZ, delta.nMinX, delta.nMinY, delta.nMinZ, delta.nMaxX, delta.nMaxY, delta.nMaxZ, true);
+                forEachDifference(delta, delta.nMinX, delta.nMinY, delta.nMinZ, delta.nMaxX, delta.nMaxY, delta.nMaxZ, delta.minX, delta.minY, delta.minZ, delta.maxX, delta.maxY, delta.maxZ, false);
+            }
+            else {
+                forEachCached(delta, delta.nMinX, delta.nMinY, delta.nMinZ, delta.nMaxX, delta.nMaxY, delta.nMaxZ, false);
+                delta.hasBox = true;
+            }
+
+            delta.minX = delta.nMinX;
+            delta.minY = delta.nMinY;
+            delta.minZ = delta.nMinZ;
+            delta.maxX = delta.nMaxX;
+            delta.maxY = delta.nMaxY;
+            delta.maxZ = delta.nMaxZ;
+        }
+
+        // Drop sections that left the cached volume
+        if (hasCachedBox && (sMinX != cMinX || sMinY != cMinY || sMinZ != cMinZ || sMaxX != cMaxX || sMaxY != cMaxY || sMaxZ != cMaxZ)) {
+            sections.long2ObjectEntrySet().removeIf(entry -> {
+                long key = entry.getLongKey();
+                int sx = ChunkSectionPos.unpackX(key), sy = ChunkSectionPos.unpackY(key), sz = ChunkSectionPos.unpackZ(key);
+                return sx < sMinX || sx > sMaxX || sy < sMinY || sy > sMaxY || sz < sMinZ || sz > sMaxZ;
+            });
+        }
+
+        hasCachedBox = true;
+        cMinX = sMinX;
+        cMinY = sMinY;
+        cMinZ = sMinZ;
+        cMaxX = sMaxX;
+        cMaxY = sMaxY;
+        cMaxZ = sMaxZ;
+    }
+
+    private static void scanSection(int sx, int sy, int sz, BlockState[] states) {
+        if (!mc.world.getChunkManager().isChunkLoaded(sx, sz)) return;
+
+        WorldChunk chunk = mc.world.getChunk(sx, sz);
+        int sectionIndex = chunk.sectionCoordToIndex(sy);
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSectionArray().length) return;
+
+        ChunkSection section = chunk.getSection(sectionIndex);
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    states[(y << 8) | (z << 4) | x] = section.getBlockState(x, y, z);
+                }
+            }
+        }
+    }
+
+    private static void rescanSection(long key, BlockState[] states) {
+        int sx = ChunkSectionPos.unpackX(key), sy = ChunkSectionPos.unpackY(key), sz = ChunkSectionPos.unpackZ(key);
+
+        BlockState[] newStates = new BlockState[states.length];
+        scanSection(sx, sy, sz, newStates);
+
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == newStates[i]) continue;
+
+            BlockState oldState = states[i];
+            states[i] = newStates[i];
+
+            blockPos.set((sx << 4) + (i & 15), (sy << 4) + (i >> 8), (sz << 4) + ((i >> 4) & 15));
+            dispatch(blockPos, oldState, newStates[i]);
+        }
+    }
+
+    private static void dispatch(BlockPos pos, BlockState oldState, BlockState newState) {
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+
+        for (Delta delta : deltas) {
+            if (!delta.hasBox) continue;
+
+            if (x >= delta.minX && x <= delta.maxX && y >= delta.minY && y <= delta.maxY && z >= delta.minZ && z <= delta.maxZ) {
+                delta.callback.accept(pos, oldState, newState);
+            }
+        }
+    }
+
+    /** Calls the delta for every cached block inside box a but outside box b. */
+    private static void forEachDifference(Delta delta, int aMinX, int aMinY, int aMinZ, int aMaxX, int aMaxY, int aMaxZ, int bMinX, int bMinY, int bMinZ, int bMaxX, int bMaxY, int bMaxZ, boolean leave) {
+        for (int x = aMinX; x <= aMaxX; x++) {
+            if (x < bMinX || x > bMaxX) {
+                forEachCached(delta, x, aMinY, aMinZ, x, aMaxY, aMaxZ, leave);
+                continue;
+            }
+
+            for (int z = aMinZ; z <= aMaxZ; z++) {
+                if (z < bMinZ || z > bMaxZ) {
+                    forEachCached(delta, x, aMinY, z, x, aMaxY, z, leave);
+                    continue;
+                }
+
+                if (aMinY < bMinY) forEachCached(delta, x, aMinY, z, x, Math.min(aMaxY, bMinY - 1), z, leave);
+                if (aMaxY > bMaxY) forEachCached(delta, x, Math.max(aMinY, bMaxY + 1), z, x, aMaxY, z, leave);
+            }
+        }
+    }
+
+    private static void forEachCached(Delta delta, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean leave) {
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    BlockState[] states = sections.get(ChunkSectionPos.asLong(x >> 4, y >> 4, z >> 4));
+                    if (states == null) continue;
+
+                    BlockState state = states[index(x, y, z)];
+                    if (state == null) continue;
+
+                    blockPos.set(x, y, z);
+
+                    if (leave) delta.callback.accept(blockPos, state, null);
+                    else delta.callback.accept(blockPos, null, state);
+                }
+            }
+        }
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private static void clearCache() {
+        sections.clear();
+        dirtySections.clear();
+        dirtyBlocks.clear();
+        unloadedChunks.clear();
+
+        cachedWorld = null;
+        hasCachedBox = false;
+    }
+
+    @FunctionalInterface
+    public interface DeltaCallback {
+        /**
+         * @param oldState {@code null} if the block just entered the range
+         * @param newState {@code null} if the block just left the range
+         */
+        void accept(BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+    private static class Delta {
+        public final DeltaCallback callback;
+        public int hRadius, vRadius;
+        public boolean removed;
+
+        public boolean hasBox;
+        public int minX, minY, minZ, maxX, maxY, maxZ;
+        public int nMinX, nMinY, nMinZ, nMaxX, nMaxY, nMaxZ;
+
+        public Delta(DeltaCallback callback, int hRadius, int vRadius) {
+            this.callback = callback;
+            this.hRadius = hRadius;
+            this.vRadius = vRadius;
+        }
+    }
+
     private static class Callback {
         public BiConsumer<BlockPos, BlockState> function;
         public int hRadius, vRadius;
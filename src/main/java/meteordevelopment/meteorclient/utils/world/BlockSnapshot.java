@@ -0,0 +1,97 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copy of the block states inside a box of the world. It is taken on the client thread so worker threads can read and
+ * raycast through the blocks while the world itself keeps changing. Positions outside the box are air and block
+ * entities are not copied.
+ */
+public class BlockSnapshot implements BlockView {
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+    private final int bottomY, height;
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockState[] states;
+
+    private BlockSnapshot(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.bottomY = world.getBottomY();
+        this.height = world.getHeight();
+
+        this.minX = minX;
+        this.minY = Math.max(minY, bottomY);
+        this.minZ = minZ;
+
+        this.sizeX = Math.max(0, maxX - minX + 1);
+        this.sizeY = Math.max(0, Math.min(maxY, bottomY + height - 1) - this.minY + 1);
+        this.sizeZ = Math.max(0, maxZ - minZ + 1);
+
+        this.states = new BlockState[sizeX * sizeY * sizeZ];
+
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        int i = 0;
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                Chunk chunk = world.getChunk((this.minX + x) >> 4, (this.minZ + z) >> 4);
+
+                for (int y = 0; y < sizeY; y++) {
+                    states[i++] = chunk.getBlockState(pos.set(this.minX + x, this.minY + y, this.minZ + z));
+                }
+            }
+        }
+    }
+
+    /** Copies the blocks between the two corners, both inclusive. Must be called on the client thread. */
+    public static BlockSnapshot of(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return new BlockSnapshot(world, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    public BlockState get(int x, int y, int z) {
+        x -= minX;
+        y -= minY;
+        z -= minZ;
+
+        if (x < 0 || x >= sizeX || y < 0 || y >= sizeY || z < 0 || z >= sizeZ) return AIR;
+        return states[(x * sizeZ + z) * sizeY + y];
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return get(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBottomY() {
+        return bottomY;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import meteordevelopment.meteorclient.MeteorClient;
+import meteordevelopment.meteorclient.events.game.GameLeftEvent;
+import meteordevelopment.meteorclient.events.world.TickEvent;
+import meteordevelopment.meteorclient.utils.PreInit;
+import meteordevelopment.orbit.EventHandler;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static meteordevelopment.meteorclient.MeteorClient.mc;
+
+/**
+ * Shared worker pool for modules that analyse whole chunks. Every module gets its own bounded {@link Queue}, repeated
+ * submissions for the same chunk are coalesced, the chunk closest to the player is always processed first and work for
+ * chunks that got unloaded in the meantime is dropped without running. Queues never drop loaded chunks to stay under
+ * their capacity, modules submit every loaded chunk when they are activated.
+ */
+public class ChunkScheduler {
+    private static final Object lock = new Object();
+    private static final List<Queue> queues = new ArrayList<>();
+
+    private static volatile int playerChunkX, playerChunkZ;
+    private static int nextQueue;
+
+    private ChunkScheduler() {
+    }
+
+    @PreInit
+    public static void init() {
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(ChunkScheduler::work);
+            thread.setDaemon(true);
+            thread.setName("Meteor-Chunk-Worker-" + (i + 1));
+            thread.start();
+        }
+
+        MeteorClient.EVENT_BUS.subscribe(ChunkScheduler.class);
+    }
+
+    /**
+     * Creates a new queue, should be called once per module.
+     * @param capacity maximum amount of pending chunks, raised to the amount of loaded chunks. When full the chunk
+     *                 furthest away from the player is dropped.
+     */
+    public static Queue queue(String name, int capacity) {
+        Queue queue = new Queue(name, capacity);
+
+        synchronized (lock) {
+            queues.add(queue);
+        }
+
+        return queue;
+    }
+
+    @EventHandler
+    private static void onTick(TickEvent.Pre event) {
+        if (mc.player == null) return;
+
+        playerChunkX = mc.player.getChunkPos().x;
+        playerChunkZ = mc.player.getChunkPos().z;
+    }
+
+    @EventHandler
+    private static void onGameLeft(GameLeftEvent event) {
+        List<Task> dropped = new ArrayList<>();
+
+        synchronized (lock) {
+            for (Queue queue : queues) {
+                dropped.addAll(queue.pending.values());
+                queue.pending.clear();
+            }
+        }
+
+        notifyDropped(dropped);
+    }
+
+    private static void work() {
+        List<Task> dropped = new ArrayList<>();
+
+        while (true) {
+            Runnable task;
+
+            synchronized (lock) {
+                while ((task = poll(dropped)) == null) {
+                    if (!dropped.isEmpty()) break;
+
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+
+            notifyDropped(dropped);
+            dropped.clear();
+
+            if (task == null) continue;
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Exception while running a chunk task", e);
+            }
+        }
+    }
+
+    /** Runs the dropped callbacks, never while holding the lock so they are free to lock module state. */
+    private static void notifyDropped(List<Task> tasks) {
+        for (Task task : tasks) {
+            if (task.dropped == null) continue;
+
+            try {
+                task.dropped.accept(task.chunk);
+            } catch (Exception e) {
+                MeteorClient.LOG.error("Exception while dropping a chunk task", e);
+            }
+        }
+    }
+
+    private static Runnable poll(List<Task> dropped) {
+        // Round-robin between the queues so one busy module can't starve the others
+        for (int i = 0; i < queues.size(); i++) {
+            Queue queue = queues.get((nextQueue + i) % queues.size());
+
+            Runnable task = queue.poll(dropped);
+
+            if (task != null) {
+                nextQueue = (nextQueue + i + 1) % queues.size();
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    private static int distance(Task task) {
+        return Math.max(Math.abs(task.x - playerChunkX), Math.abs(task.z - playerChunkZ));
+    }
+
+    private static boolean isStale(Task task) {
+        ClientWorld world = mc.world;
+        return world == null || world != task.world || !world.getChunkManager().isChunkLoaded(task.x, task.z);
+    }
+
+    public static class Queue {
+        public final String name;
+        private final int capacity;
+
+        private final Long2ObjectMap<Task> pending = new Long2ObjectOpenHashMap<>();
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        private Queue(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+        }
+
+        public boolean submit(Chunk chunk, Consumer<Chunk> action) {
+            return submit(chunk, action, null);
+        }
+
+        /**
+         * Schedules the action to be run with the chunk on a worker thread. If the chunk is already waiting in this
+         * queue the previous action is replaced.
+         * @param dropped called with the chunk when the action won't run, because the chunk got unloaded, the game was
+         *                left or the queue was full, unless it was replaced or the queue was cleared. Never called
+         *                while the scheduler is locked.
+         * @return false if the queue is full and the chunk is further away than everything already in it
+         */
+        public boolean submit(Chunk chunk, Consumer<Chunk> action, @Nullable Consumer<Chunk> dropped) {
+            ChunkPos pos = chunk.getPos();
+            long key = pos.toLong();
+
+            Task evicted = null;
+
+            synchronized (lock) {
+                Task task = pending.get(key);
+
+                if (task != null) {
+                    task.chunk = chunk;
+                    task.action = action;
+                    task.dropped = dropped;
+                    task.world = mc.world;
+                    return true;
+                }
+
+                task = new Task(pos.x, pos.z, chunk, action, dropped, mc.world);
+
+                if (pending.size() >= capacity()) {
+                    Task furthest = null;
+
+                    for (Task t : pending.values()) {
+                        if (furthest == null || distance(t) > distance(furthest)) furthest = t;
+                    }
+
+                    if (furthest == null || distance(furthest) <= distance(task)) return false;
+
+                    pending.remove(ChunkPos.toLong(furthest.x, furthest.z));
+                    evicted = furthest;
+                }
+
+                pending.put(key, task);
+                lock.notify();
+            }
+
+            if (evicted != null) notifyDropped(List.of(evicted));
+            return true;
+        }
+
+        /**
+         * Schedules a task that isn't bound to a chunk, these run before any pending chunk in the order they were added.
+         */
+        public void execute(Runnable task) {
+            synchronized (lock) {
+                tasks.add(task);
+                lock.notify();
+            }
+        }
+
+        /** Drops all work that hasn't started yet. */
+        public void clear() {
+            synchronized (lock) {
+                pending.clear();
+                tasks.clear();
+            }
+        }
+
+        public int size() {
+            synchronized (lock) {
+                return pending.size() + tasks.size();
+            }
+        }
+
+        private int capacity() {
+            ClientWorld world = mc.world;
+            return world == null ? capacity : Math.max(capacity, world.getChunkManager().getLoadedChunkCount());
+        }
+
+        private Runnable poll(List<Task> dropped) {
+            if (!tasks.isEmpty()) return tasks.poll();
+
+            Task nearest = null;
+            int nearestDistance = Integer.MAX_VALUE;
+
+            for (Iterator<Task> it = pending.values().iterator(); it.hasNext(); ) {
+                Task task = it.next();
+
+                if (isStale(task)) {
+                    it.remove();
+                    dropped.add(task);
+                    continue;
+                }
+
+                int distance = distance(task);
+
+                if (distance < nearestDistance) {
+                    nearest = task;
+                    nearestDistance = distance;
+                }
+            }
+
+            if (nearest == null) return null;
+            pending.remove(ChunkPos.toLong(nearest.x, nearest.z));
+
+            Chunk chunk = nearest.chunk;
+            Consumer<Chunk> action = nearest.action;
+
+            return () -> action.accept(chunk);
+        }
+    }
+
+    private static class Task {
+        public final int x, z;
+        public Chunk chunk;
+        public Consumer<Chunk> action;
+        public Consumer<Chunk> dropped;
+        public ClientWorld world;
+
+        public Task(int x, int z, Chunk chunk, Consumer<Chunk> action, Consumer<Chunk> dropped, ClientWorld world) {
+            this.x = x;
+            this.z = z;
+            this.chunk = chunk;
+            this.action = action;
+            this.dropped = dropped;
+            this.world = world;
+        }
+    }
+}
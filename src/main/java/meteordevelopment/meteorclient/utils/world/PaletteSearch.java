@@ -0,0 +1,176 @@
+/*
+ * This file is part of the Meteor Client distribution (https://github.com/MeteorDevelopment/meteor-client).
+ * Copyright (c) Meteor Development.
+ */
+
+package meteordevelopment.meteorclient.utils.world;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.collection.PackedIntegerArray;
+import net.minecraft.util.collection.PaletteStorage;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.IdListPalette;
+import net.minecraft.world.chunk.Palette;
+import net.minecraft.world.chunk.PalettedContainer;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Searches chunks for block states by looking at the palette of each {@link ChunkSection} first. Sections whose palette
+ * contains no matching state are skipped entirely and the packed storage of the rest is only compared against the
+ * matching palette ids, so no {@link BlockState} lookup happens per block. Sections with too many different states for
+ * a local palette use the global one, those are tested block by block instead.
+ */
+public class PaletteSearch {
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private PaletteSearch() {
+    }
+
+    /**
+     * Calls the consumer with world coordinates for every block in the chunk whose state matches the predicate.
+     * Safe to call from worker threads, every section is read from a single snapshot of its container data.
+     */
+    public static void search(Chunk chunk, Predicate<BlockState> predicate, Consumer consumer) {
+        ChunkSection[] sections = chunk.getSectionArray();
+
+        int startX = chunk.getPos().getStartX();
+        int startZ = chunk.getPos().getStartZ();
+        int bottomSectionY = chunk.getBottomSectionCoord();
+
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (section == null) continue;
+
+            search(section.getBlockStateContainer(), startX, (bottomSectionY + i) << 4, startZ, predicate, consumer);
+        }
+    }
+
+    /**
+     * Builds a bitset of the blocks in the section whose state matches the predicate, bit {@code (y << 8) | (z << 4) | x}
+     * is set for a match.
+     * @return the bitset as 64 longs or null if no block matches
+     */
+    public static long[] mask(ChunkSection section, Predicate<BlockState> predicate) {
+        PalettedContainer.Data<BlockState> data = section.getBlockStateContainer().data;
+
+        Palette<BlockState> palette = data.palette();
+        PaletteStorage storage = data.storage();
+
+        if (palette instanceof IdListPalette<BlockState>) {
+            long[] mask = new long[SECTION_SIZE / 64];
+            boolean any = false;
+
+            for (int index = 0; index < SECTION_SIZE; index++) {
+                BlockState state = palette.get(storage.get(index));
+
+                if (state != null && predicate.test(state)) {
+                    mask[index >> 6] |= 1L << index;
+                    any = true;
+                }
+            }
+
+            return any ? mask : null;
+        }
+
+        boolean[] matches = matches(palette, predicate);
+        if (matches == null) return null;
+
+        long[] mask = new long[SECTION_SIZE / 64];
+
+        if (palette.getSize() == 1) {
+            Arrays.fill(mask, -1L);
+            return mask;
+        }
+
+        for (int index = 0; index < SECTION_SIZE; index++) {
+            int id = storage.get(index);
+            if (id < matches.length && matches[id]) mask[index >> 6] |= 1L << index;
+        }
+
+        return mask;
+    }
+
+    /** Same as {@link #search(Chunk, Predicate, Consumer)} for a single section, the start coordinates are its lowest corner. */
+    public static void search(PalettedContainer<BlockState> container, int startX, int startY, int startZ, Predicate<BlockState> predicate, Consumer consumer) {
+        PalettedContainer.Data<BlockState> data = container.data;
+
+        Palette<BlockState> palette = data.palette();
+        PaletteStorage storage = data.storage();
+
+        // The global palette is the whole block state registry, testing all of it would be slower than every block
+        if (palette instanceof IdListPalette<BlockState>) {
+            for (int index = 0; index < SECTION_SIZE; index++) {
+                BlockState state = palette.get(storage.get(index));
+                if (state != null && predicate.test(state)) accept(state, index, startX, startY, startZ, consumer);
+            }
+
+            return;
+        }
+
+        boolean[] matches = matches(palette, predicate);
+        if (matches == null) return;
+
+        int paletteSize = matches.length;
+
+        // Single valued section, every block matches
+        if (paletteSize == 1) {
+            for (int index = 0; index < SECTION_SIZE; index++) accept(palette.get(0), index, startX, startY, startZ, consumer);
+            return;
+        }
+
+        if (storage instanceof PackedIntegerArray packed) {
+            long[] words = packed.getData();
+            int bits = packed.getElementBits();
+            int perWord = 64 / bits;
+            long mask = (1L << bits) - 1;
+
+            int index = 0;
+
+            for (long word : words) {
+                for (int j = 0; j < perWord && index < SECTION_SIZE; j++, index++) {
+                    int id = (int) (word & mask);
+                    word >>>= bits;
+
+                    if (id < paletteSize && matches[id]) accept(palette.get(id), index, startX, startY, startZ, consumer);
+                }
+            }
+        }
+        else {
+            for (int index = 0; index < SECTION_SIZE; index++) {
+                int id = storage.get(index);
+                if (id < paletteSize && matches[id]) accept(palette.get(id), index, startX, startY, startZ, consumer);
+            }
+        }
+    }
+
+    /** Mask of palette ids whose state matches, null if there are none. */
+    private static boolean[] matches(Palette<BlockState> palette, Predicate<BlockState> predicate) {
+        int paletteSize = palette.getSize();
+        boolean[] matches = new boolean[paletteSize];
+        boolean any = false;
+
+        for (int id = 0; id < paletteSize; id++) {
+            BlockState state = palette.get(id);
+
+            if (state != null && predicate.test(state)) {
+                matches[id] = true;
+                any = true;
+            }
+        }
+
+        return any ? matches : null;
+    }
+
+    private static void accept(BlockState state, int index, int startX, int startY, int startZ, Consumer consumer) {
+        // Index layout of block state containers is (y << 8) | (z << 4) | x
+        consumer.accept(startX + (index & 15), startY + (index >> 8), startZ + ((index >> 4) & 15), state);
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(int x, int y, int z, BlockState state);
+    }
+}
@@ -8,6 +8,8 @@ package meteordevelopment.meteorclient.utils.world;
 import meteordevelopment.meteorclient.MeteorClient;
 import meteordevelopment.meteorclient.events.game.GameJoinedEvent;
 import meteordevelopment.meteorclient.events.packets.PacketEvent;
+import meteordevelopment.meteorclient.events.packets.PacketHandler;
+import meteordevelopment.meteorclient.events.packets.PacketListeners;
 import meteordevelopment.meteorclient.utils.Utils;
 import meteordevelopment.orbit.EventHandler;
 import net.minecraft.network.packet.s2c.play.WorldTimeUpdateS2CPacket;
@@ -28,9 +30,10 @@ public class TickRate {
 
     private TickRate() {
         MeteorClient.EVENT_BUS.subscribe(this);
+        PacketListeners.subscribe(this);
     }
 
-    @EventHandler
+    @PacketHandler(WorldTimeUpdateS2CPacket.class)
     private void onReceivePacket(PacketEvent.Receive event) {
         if (event.packet instanceof WorldTimeUpdateS2CPacket) {
             long now = System.currentTimeMillis();
@@ -0,0 +1,24 @@
+#version 330 core
+
+layout (location = 0) in vec3 pos;
+layout (location = 1) in int mask;
+
+layout (location = 2) in vec3 boxMin;
+layout (location = 3) in vec3 boxMax;
+layout (location = 4) in vec4 sideColor;
+layout (location = 5) in vec4 lineColor;
+layout (location = 6) in int exclude;
+
+uniform mat4 u_Proj;
+uniform mat4 u_ModelView;
+uniform bool u_Lines;
+
+out vec4 v_Color;
+
+void main() {
+    // All vertices of an excluded face or edge collapse into one point outside the view so nothing gets rasterized
+    if ((mask & exclude) != 0) gl_Position = vec4(2.0, 2.0, 2.0, 1.0);
+    else gl_Position = u_Proj * u_ModelView * vec4(mix(boxMin, boxMax, pos), 1.0);
+
+    v_Color = u_Lines ? lineColor : sideColor;
+}